@@ -4,7 +4,6 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.io.File;
-import java.nio.file.Files;
 import java.util.*;
 
 class ControlPanel extends JPanel {
@@ -13,6 +12,19 @@ class ControlPanel extends JPanel {
     private final JCheckBox cosBox = new JCheckBox("cos(x)");
     private final JCheckBox quadBox = new JCheckBox("0.1x^2 - 2");
     private final JCheckBox gridBox = new JCheckBox("Grid", true);
+    private final JCheckBox cacheBox = new JCheckBox("Cache evaluations");
+    private final JLabel cacheLabel = new JLabel(" ");
+    private static final int CACHE_CAPACITY = 1 << 16;
+    // memoized wrappers are kept across "Apply selection" so their caches survive
+    private final Map<String, PlottableFunction> memoized = new HashMap<>();
+
+    // statistics of the active (most recently loaded or selected) series
+    private final JTextArea statsText = new JTextArea(7, 20);
+    private final JCheckBox visibleOnlyBox = new JCheckBox("Visible range only");
+    private SeriesStatistics stats = null;
+    private SeriesIntegral integral = null;
+    private DataSeries series = null;
+    private DatasetManager datasets = null;
 
     public ControlPanel(GraphPanel graph) {
         this.graph = graph;
@@ -32,35 +44,59 @@ class ControlPanel extends JPanel {
         fnPanel.add(cosBox);
         fnPanel.add(quadBox);
 
+        // --- Statistics ---
+        JPanel statsPanel = new JPanel(new BorderLayout());
+        statsPanel.setBorder(BorderFactory.createTitledBorder("Statistics"));
+        statsText.setEditable(false);
+        statsText.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+        statsText.setText("No data loaded");
+        statsPanel.add(statsText, BorderLayout.CENTER);
+        statsPanel.add(visibleOnlyBox, BorderLayout.SOUTH);
+
+        JPanel center = new JPanel(new BorderLayout());
+        center.add(fnPanel, BorderLayout.NORTH);
+        center.add(statsPanel, BorderLayout.CENTER);
+
         // --- Options ---
         JPanel optPanel = new JPanel();
         optPanel.setLayout(new BoxLayout(optPanel, BoxLayout.Y_AXIS));
         optPanel.setBorder(BorderFactory.createTitledBorder("Options"));
         optPanel.add(gridBox);
+        optPanel.add(cacheBox);
+        optPanel.add(cacheLabel);
 
         // --- Action buttons ---
         JButton apply = new JButton("Apply selection");
         JButton reset = new JButton("Reset view (Esc)");
-        JButton load  = new JButton("Load data file…");
+        JButton load  = new JButton("Load data files…");
+        JButton manage = new JButton("Datasets…");
         JButton zeros = new JButton("Highlight zeros");
         JButton extrema = new JButton("Find extrema");
         JButton histogram = new JButton("Show histogram");
+        JButton export = new JButton("Export…");
+        JButton integrate = new JButton("Plot integral");
+        JButton derive = new JButton("Plot derivative");
 
         JPanel btns = new JPanel(new GridLayout(0, 1, 8, 8));
         btns.setBorder(BorderFactory.createTitledBorder("Actions"));
         btns.add(apply);
         btns.add(reset);
         btns.add(load);
+        btns.add(manage);
         btns.add(zeros);
         btns.add(extrema);
         btns.add(histogram);
+        btns.add(integrate);
+        btns.add(derive);
+        btns.add(export);
 
         // --- Layout composition ---
         add(title, BorderLayout.NORTH);
-        add(fnPanel, BorderLayout.CENTER);
-        add(optPanel, BorderLayout.SOUTH);
+        add(center, BorderLayout.CENTER);
 
+        // SOUTH and PAGE_END share one slot, so options sit inside the wrapper
         JPanel southWrapper = new JPanel(new BorderLayout());
+        southWrapper.add(optPanel, BorderLayout.NORTH);
         southWrapper.add(btns, BorderLayout.CENTER);
         add(southWrapper, BorderLayout.PAGE_END);
 
@@ -68,10 +104,24 @@ class ControlPanel extends JPanel {
         apply.addActionListener(e -> refreshFunctions());
         reset.addActionListener(e -> graph.resetView());
         gridBox.addActionListener(e -> graph.setShowGrid(gridBox.isSelected()));
+        cacheBox.addActionListener(e -> refreshFunctions());
+        new javax.swing.Timer(1000, e -> updateCacheLabel()).start();
         load.addActionListener(e -> loadDataSeries());
+        manage.addActionListener(e -> datasets().setVisible(true));
         zeros.addActionListener(e -> graph.highlightZeros());
         extrema.addActionListener(e -> graph.findExtrema());
         histogram.addActionListener(e -> graph.toggleHistogram()); // ✅ new feature
+        export.addActionListener(e -> exportData());
+        integrate.addActionListener(e -> {
+            if (integral != null) graph.addFunction(integral.integralFunction(new Color(255, 140, 0)));
+        });
+        derive.addActionListener(e -> {
+            if (integral != null) graph.addFunction(integral.derivativeFunction(new Color(0, 150, 150)));
+        });
+        visibleOnlyBox.addActionListener(e -> updateStatistics());
+        graph.addPropertyChangeListener("viewport", e -> {
+            if (visibleOnlyBox.isSelected()) updateStatistics();
+        });
 
         // Initial state
         refreshFunctions();
@@ -81,59 +131,146 @@ class ControlPanel extends JPanel {
     private void refreshFunctions() {
         graph.clearFunctions();
         if (sinBox.isSelected())
-            graph.addFunction(new PlottableFunction("sin(x)", new Color(220, 20, 60), Math::sin));
+            graph.addFunction(cached(new PlottableFunction("sin(x)", new Color(220, 20, 60), Math::sin)));
         if (cosBox.isSelected())
-            graph.addFunction(new PlottableFunction("cos(x)", new Color(34, 139, 34), Math::cos));
+            graph.addFunction(cached(new PlottableFunction("cos(x)", new Color(34, 139, 34), Math::cos)));
         if (quadBox.isSelected())
-            graph.addFunction(new PlottableFunction("0.1x^2 - 2", new Color(30, 144, 255), x -> 0.1 * x * x - 2));
+            graph.addFunction(cached(new PlottableFunction("0.1x^2 - 2", new Color(30, 144, 255), x -> 0.1 * x * x - 2)));
+        if (datasets != null)
+            for (PlottableFunction f : datasets.visibleFunctions()) graph.addFunction(f);
+        if (series != null)
+            graph.setHistogramData(series.ys);
         graph.requestFocusInWindow();
     }
 
-    // --- Helper: load text data from file ---
+    // --- Helper: wrap in an evaluation cache when enabled ---
+    private PlottableFunction cached(PlottableFunction f) {
+        if (!cacheBox.isSelected()) return f;
+        return memoized.computeIfAbsent(f.name, k -> f.memoized(CACHE_CAPACITY));
+    }
+
+    private void updateCacheLabel() {
+        if (!cacheBox.isSelected()) {
+            cacheLabel.setText(" ");
+            return;
+        }
+        long[] stats = graph.cacheStats();
+        cacheLabel.setText("Cache: " + stats[0] + " hits / " + stats[1] + " misses");
+    }
+
+    // --- Helper: load text data files (several files or whole directories) ---
     private void loadDataSeries() {
         JFileChooser chooser = new JFileChooser();
         chooser.setDialogTitle("Open text data – one y per line or x y per line");
+        chooser.setMultiSelectionEnabled(true);
+        chooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
         int res = chooser.showOpenDialog(this);
         if (res == JFileChooser.APPROVE_OPTION) {
-            File f = chooser.getSelectedFile();
-            try {
-                java.util.List<String> lines = Files.readAllLines(f.toPath());
-                java.util.List<Double> xs = new ArrayList<>();
-                java.util.List<Double> ys = new ArrayList<>();
-                int i = 0;
-                for (String line : lines) {
-                    String t = line.trim();
-                    if (t.isEmpty()) continue;
-                    String[] parts = t.split("\\s+");
-                    if (parts.length >= 2) {
-                        xs.add(Double.parseDouble(parts[0]));
-                        ys.add(Double.parseDouble(parts[1]));
-                    } else {
-                        xs.add((double) i++);
-                        ys.add(Double.parseDouble(parts[0]));
-                    }
-                }
+            DatasetManager manager = datasets();
+            manager.setVisible(true);
+            manager.load(chooser.getSelectedFiles());
+        }
+    }
+
+    private DatasetManager datasets() {
+        if (datasets == null)
+            datasets = new DatasetManager(SwingUtilities.getWindowAncestor(this), graph, this::setActiveSeries);
+        return datasets;
+    }
+
+    private void setActiveSeries(DataSeries s) {
+        if (s == series) return;
+        series = s;
+        graph.setHistogramData(s.ys); // ✅ pass to GraphPanel for histogram
+        analyzeSeries(s);
+    }
+
+    // --- Helper: statistics and prefix integral of the active series (computed off the EDT) ---
+    private void analyzeSeries(DataSeries target) {
+        statsText.setText("Computing…");
+        new SwingWorker<SeriesStatistics, Void>() {
+            private SeriesIntegral prefix;
 
-                // --- Create plottable data function ---
-                PlottableFunction dataFn = new PlottableFunction("data(series)", new Color(128, 0, 128), x -> {
-                    if (xs.isEmpty()) return Double.NaN;
-                    int idx = 0;
-                    while (idx + 1 < xs.size() && xs.get(idx + 1) < x) idx++;
-                    if (idx + 1 >= xs.size()) return ys.get(ys.size() - 1);
-                    double x0 = xs.get(idx), x1 = xs.get(idx + 1);
-                    double y0 = ys.get(idx), y1 = ys.get(idx + 1);
-                    if (x1 == x0) return y0;
-                    double t = (x - x0) / (x1 - x0);
-                    return y0 * (1 - t) + y1 * t;
-                });
-                graph.addFunction(dataFn);
-                graph.setHistogramData(ys); // ✅ pass to GraphPanel for histogram
-                graph.requestFocusInWindow();
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this,
-                        "Failed to load: " + ex.getMessage(),
-                        "Error", JOptionPane.ERROR_MESSAGE);
+            @Override protected SeriesStatistics doInBackground() {
+                SeriesStatistics s = new SeriesStatistics(target);
+                s.prepareRanges();
+                prefix = new SeriesIntegral(target);
+                return s;
             }
+
+            @Override protected void done() {
+                if (target != series) return; // another series became active meanwhile
+                try {
+                    stats = get();
+                    integral = prefix;
+                    graph.setAreaSource(prefix);
+                    updateStatistics();
+                } catch (Exception ex) {
+                    statsText.setText("Failed: " + ex.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void updateStatistics() {
+        if (stats == null) return;
+        if (visibleOnlyBox.isSelected())
+            statsText.setText(stats.range(graph.getXMin(), graph.getXMax()).describe());
+        else
+            statsText.setText(stats.total().describe());
+    }
+
+    // --- Helper: export viewport samples, visible series or marked points ---
+    private void exportData() {
+        String[] choices = {"Viewport samples", "Visible data series", "Zeros & extrema"};
+        int what = JOptionPane.showOptionDialog(this, "What should be exported?", "Export",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, choices, choices[0]);
+        if (what < 0) return;
+        if (what == 1 && series == null) {
+            JOptionPane.showMessageDialog(this, "No data series loaded.", "Export", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export – .csv text or .hpc binary columns");
+        chooser.addChoosableFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV (*.csv)", "csv"));
+        chooser.addChoosableFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Binary columns (*.hpc)", "hpc"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File f = chooser.getSelectedFile();
+        if (!f.getName().contains(".")) {
+            // No extension typed: take the one of the chosen filter ("All files" means CSV)
+            String ext = chooser.getFileFilter() instanceof javax.swing.filechooser.FileNameExtensionFilter
+                    ? ((javax.swing.filechooser.FileNameExtensionFilter) chooser.getFileFilter()).getExtensions()[0]
+                    : "csv";
+            f = new File(f.getPath() + "." + ext);
         }
+        final java.nio.file.Path target = f.toPath();
+
+        final DataExporter.Columns data;
+        if (what == 0)
+            data = DataExporter.viewportSamples(new ArrayList<>(graph.getFunctions()),
+                    graph.getXMin(), graph.getXMax(), graph.getSamples());
+        else if (what == 1)
+            data = DataExporter.seriesRange(series, graph.getXMin(), graph.getXMax());
+        else
+            data = DataExporter.markedPoints(new ArrayList<>(graph.getZeroPoints()),
+                    new ArrayList<>(graph.getMaximaPoints()), new ArrayList<>(graph.getMinimaPoints()));
+
+        new SwingWorker<Void, Void>() {
+            @Override protected Void doInBackground() throws Exception {
+                DataExporter.write(data, target);
+                return null;
+            }
+
+            @Override protected void done() {
+                try {
+                    get();
+                } catch (Exception ex) {
+                    JOptionPane.showMessageDialog(ControlPanel.this,
+                            "Failed to export: " + ex.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
     }
 }
@@ -0,0 +1,151 @@
+package worksheet1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams tabular results to CSV or to the binary columnar format (.hpc).
+ * Values are pulled from a {@link Columns} source one at a time and encoded straight
+ * into a reusable direct buffer, so heap use does not depend on the row count.
+ *
+ * Binary layout (little endian):
+ *   int magic "HPC1", int columnCount, long rowCount,
+ *   per column: unsigned short nameLength, UTF-8 name bytes,
+ *   then every column as rowCount doubles, one column after the other.
+ */
+class DataExporter {
+    static final int MAGIC = 0x31435048; // "HPC1" read as little-endian int
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Random-access view of the data to export. */
+    interface Columns {
+        int columnCount();
+        String name(int column);
+        long rows();
+        double value(int column, long row);
+    }
+
+    static void write(Columns data, Path file) throws IOException {
+        if (file.getFileName().toString().toLowerCase().endsWith(".hpc"))
+            writeBinary(data, file);
+        else
+            writeCsv(data, file);
+    }
+
+    static void writeCsv(Columns data, Path file) throws IOException {
+        try (FileChannel ch = open(file)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            StringBuilder num = new StringBuilder(32); // reused for every number
+            int cols = data.columnCount();
+            for (int c = 0; c < cols; c++) {
+                String name = data.name(c);
+                if (buf.remaining() < name.length() + 2) drain(ch, buf);
+                if (c > 0) buf.put((byte) ',');
+                ascii(name, buf);
+            }
+            buf.put((byte) '\n');
+
+            for (long r = 0, rows = data.rows(); r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    if (buf.remaining() < 64) drain(ch, buf);
+                    if (c > 0) buf.put((byte) ',');
+                    num.setLength(0);
+                    num.append(data.value(c, r));
+                    for (int i = 0; i < num.length(); i++) buf.put((byte) num.charAt(i));
+                }
+                buf.put((byte) '\n');
+            }
+            drain(ch, buf);
+        }
+    }
+
+    static void writeBinary(Columns data, Path file) throws IOException {
+        try (FileChannel ch = open(file)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            int cols = data.columnCount();
+            long rows = data.rows();
+            buf.putInt(MAGIC).putInt(cols).putLong(rows);
+            for (int c = 0; c < cols; c++) {
+                byte[] name = data.name(c).getBytes(StandardCharsets.UTF_8);
+                if (name.length > 0xFFFF) throw new IOException("column name longer than 65535 bytes: column " + c);
+                if (buf.remaining() < 2 + name.length) drain(ch, buf);
+                buf.putShort((short) name.length).put(name);
+            }
+            for (int c = 0; c < cols; c++) {
+                for (long r = 0; r < rows; r++) {
+                    if (buf.remaining() < Double.BYTES) drain(ch, buf);
+                    buf.putDouble(data.value(c, r));
+                }
+            }
+            drain(ch, buf);
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    private static void ascii(String s, ByteBuffer buf) {
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            buf.put((byte) (ch < 128 && ch != ',' ? ch : '_'));
+        }
+    }
+
+    // --- Sources ---
+
+    // The loaded series restricted to x in [x0, x1]
+    static Columns seriesRange(DataSeries s, double x0, double x1) {
+        int lo = s.lowerIndex(x0), hi = Math.max(lo, s.upperIndex(x1));
+        return new Columns() {
+            public int columnCount() { return 2; }
+            public String name(int c) { return c == 0 ? "x" : "y"; }
+            public long rows() { return hi - lo; }
+            public double value(int c, long r) { return c == 0 ? s.xs[lo + (int) r] : s.ys[lo + (int) r]; }
+        };
+    }
+
+    // n evenly spaced samples of every plotted function over [x0, x1]
+    static Columns viewportSamples(java.util.List<PlottableFunction> fns, double x0, double x1, long n) {
+        return new Columns() {
+            public int columnCount() { return fns.size() + 1; }
+            public String name(int c) { return c == 0 ? "x" : fns.get(c - 1).name; }
+            public long rows() { return n; }
+            public double value(int c, long r) {
+                double x = n > 1 ? x0 + (x1 - x0) * r / (double) (n - 1) : x0;
+                return c == 0 ? x : fns.get(c - 1).func.applyAsDouble(x);
+            }
+        };
+    }
+
+    // Highlighted zeros and extrema; kind is 0 for zeros, 1 for maxima, -1 for minima
+    static Columns markedPoints(java.util.List<java.awt.geom.Point2D.Double> zeros,
+                                java.util.List<java.awt.geom.Point2D.Double> maxima,
+                                java.util.List<java.awt.geom.Point2D.Double> minima) {
+        int a = zeros.size(), b = a + maxima.size(), total = b + minima.size();
+        return new Columns() {
+            public int columnCount() { return 3; }
+            public String name(int c) { return c == 0 ? "x" : c == 1 ? "y" : "kind"; }
+            public long rows() { return total; }
+            public double value(int c, long r) {
+                int i = (int) r;
+                java.awt.geom.Point2D.Double p = i < a ? zeros.get(i) : i < b ? maxima.get(i - a) : minima.get(i - b);
+                if (c == 0) return p.x;
+                if (c == 1) return p.y;
+                return i < a ? 0 : i < b ? 1 : -1;
+            }
+        };
+    }
+}
@@ -0,0 +1,179 @@
+package worksheet1;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A loaded data file as primitive arrays, sorted by x.
+ * Text format: one y per line, or "x y" per line. Files ending in .hpc are read
+ * as the binary columnar format written by {@link DataExporter} (first two columns).
+ */
+class DataSeries {
+    final String name;
+    final double[] xs;
+    final double[] ys;
+
+    DataSeries(String name, double[] xs, double[] ys) {
+        this.name = name;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    static DataSeries load(File f) throws IOException {
+        if (f.getName().toLowerCase().endsWith(".hpc")) return loadBinary(f);
+        return parse(f.getName(), Files.readAllBytes(f.toPath()));
+    }
+
+    // Tokenizes the raw bytes directly; only the two numbers of a line become strings
+    static DataSeries parse(String name, byte[] data) {
+        double[] xs = new double[1024];
+        double[] ys = new double[1024];
+        int n = 0, i = 0, pos = 0, len = data.length;
+        while (pos < len) {
+            int end = pos;
+            while (end < len && data[end] != '\n') end++;
+
+            int a = skipBlank(data, pos, end), aEnd = skipToken(data, a, end);
+            int b = skipBlank(data, aEnd, end), bEnd = skipToken(data, b, end);
+            pos = end + 1;
+            if (a == aEnd) continue;
+
+            if (n == xs.length) {
+                xs = Arrays.copyOf(xs, n * 2);
+                ys = Arrays.copyOf(ys, n * 2);
+            }
+            if (b < bEnd) {
+                xs[n] = number(data, a, aEnd);
+                ys[n] = number(data, b, bEnd);
+            } else {
+                xs[n] = i++;
+                ys[n] = number(data, a, aEnd);
+            }
+            n++;
+        }
+        return sorted(name, Arrays.copyOf(xs, n), Arrays.copyOf(ys, n));
+    }
+
+    private static int skipBlank(byte[] d, int p, int end) {
+        while (p < end && d[p] <= ' ') p++;
+        return p;
+    }
+
+    private static int skipToken(byte[] d, int p, int end) {
+        while (p < end && d[p] > ' ') p++;
+        return p;
+    }
+
+    private static double number(byte[] d, int from, int to) {
+        return Double.parseDouble(new String(d, from, to - from, StandardCharsets.ISO_8859_1));
+    }
+
+    private static DataSeries loadBinary(File f) throws IOException {
+        try (FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(ch, head, 0);
+            if (head.getInt() != DataExporter.MAGIC) throw new IOException("not an .hpc file");
+            int cols = head.getInt();
+            long rows = head.getLong();
+            if (cols < 2 || rows < 0 || rows > Integer.MAX_VALUE - 8) throw new IOException("unsupported .hpc layout");
+
+            long pos = 16;
+            ByteBuffer len = ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN);
+            for (int c = 0; c < cols; c++) {
+                len.clear();
+                readFully(ch, len, pos);
+                pos += 2 + Short.toUnsignedInt(len.getShort(0));
+            }
+            if (pos + 2 * rows * Double.BYTES > ch.size()) throw new IOException("truncated .hpc file");
+            double[] xs = readColumn(ch, pos, (int) rows);
+            double[] ys = readColumn(ch, pos + rows * Double.BYTES, (int) rows);
+            return sorted(f.getName(), xs, ys);
+        }
+    }
+
+    // Bulk-decodes one column through memory-mapped windows
+    private static double[] readColumn(FileChannel ch, long pos, int rows) throws IOException {
+        double[] out = new double[rows];
+        final int window = 1 << 24; // doubles per mapping
+        for (int done = 0; done < rows; done += window) {
+            int n = Math.min(window, rows - done);
+            ch.map(FileChannel.MapMode.READ_ONLY, pos + (long) done * Double.BYTES, (long) n * Double.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(out, done, n);
+        }
+        return out;
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, pos + buf.position()) < 0) throw new IOException("truncated .hpc file");
+        }
+        buf.flip();
+    }
+
+    // Interpolation and range queries rely on ascending x
+    static DataSeries sorted(String name, double[] xs, double[] ys) {
+        boolean ascending = true;
+        for (int k = 1; k < xs.length && ascending; k++)
+            ascending = xs[k - 1] <= xs[k];
+        if (ascending) return new DataSeries(name, xs, ys);
+
+        Integer[] order = new Integer[xs.length];
+        for (int k = 0; k < order.length; k++) order[k] = k;
+        Arrays.sort(order, (a, b) -> Double.compare(xs[a], xs[b]));
+        double[] sx = new double[xs.length], sy = new double[ys.length];
+        for (int k = 0; k < order.length; k++) {
+            sx[k] = xs[order[k]];
+            sy[k] = ys[order[k]];
+        }
+        return new DataSeries(name, sx, sy);
+    }
+
+    int size() {
+        return xs.length;
+    }
+
+    // First index with xs[idx] >= x
+    int lowerIndex(double x) {
+        int lo = 0, hi = xs.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (xs[mid] < x) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // First index with xs[idx] > x
+    int upperIndex(double x) {
+        int lo = 0, hi = xs.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (xs[mid] <= x) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // Linear interpolation; extrapolates left of the data, holds the last value right of it
+    double valueAt(double x) {
+        int n = xs.length;
+        if (n == 0) return Double.NaN;
+        if (n == 1) return ys[0];
+        int idx = Math.max(1, lowerIndex(x));
+        if (idx >= n) return ys[n - 1];
+        double x0 = xs[idx - 1], x1 = xs[idx];
+        double y0 = ys[idx - 1], y1 = ys[idx];
+        if (x1 == x0) return y0;
+        double t = (x - x0) / (x1 - x0);
+        return y0 * (1 - t) + y1 * t;
+    }
+
+    PlottableFunction toFunction(java.awt.Color color) {
+        return new PlottableFunction(name, color, this::valueAt);
+    }
+}
@@ -0,0 +1,233 @@
+package worksheet1;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Lists every loaded data file and toggles its curve without reloading.
+ * A selection of files and directories is loaded concurrently: reads run on a
+ * pool of I/O threads, parsing is limited to one task per core, and rows appear
+ * in the table as each file completes.
+ */
+class DatasetManager extends JDialog {
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+    private static final int IO_THREADS = Math.max(8, CORES * 4);
+
+    static final class Dataset {
+        final File file;
+        final long bytes;
+        final DataSeries series;
+        final long loadMillis;
+        PlottableFunction fn;
+        boolean visible = true;
+
+        Dataset(File file, long bytes, DataSeries series, long loadMillis) {
+            this.file = file;
+            this.bytes = bytes;
+            this.series = series;
+            this.loadMillis = loadMillis;
+        }
+    }
+
+    private final GraphPanel graph;
+    private final Consumer<DataSeries> onActive;
+    private final List<Dataset> datasets = new ArrayList<>();
+    private final DatasetTableModel model = new DatasetTableModel();
+    private final JTable table = new JTable(model);
+    private final JLabel status = new JLabel(" ");
+
+    DatasetManager(Window owner, GraphPanel graph, Consumer<DataSeries> onActive) {
+        super(owner, "Datasets", ModalityType.MODELESS);
+        this.graph = graph;
+        this.onActive = onActive;
+
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getColumnModel().getColumn(0).setMaxWidth(60);
+        table.getSelectionModel().addListSelectionListener(e -> {
+            int row = table.getSelectedRow();
+            if (!e.getValueIsAdjusting() && row >= 0) onActive.accept(datasets.get(row).series);
+        });
+
+        JPanel content = new JPanel(new BorderLayout(0, 8));
+        content.setBorder(new EmptyBorder(8, 8, 8, 8));
+        content.add(new JScrollPane(table), BorderLayout.CENTER);
+        content.add(status, BorderLayout.SOUTH);
+        setContentPane(content);
+        setSize(560, 320);
+        setLocationRelativeTo(owner);
+    }
+
+    // --- Public API ---
+    List<PlottableFunction> visibleFunctions() {
+        List<PlottableFunction> result = new ArrayList<>();
+        for (Dataset d : datasets)
+            if (d.visible) result.add(d.fn);
+        return result;
+    }
+
+    void load(File[] selection) {
+        List<File> files = new ArrayList<>();
+        for (File f : selection) collect(f, files);
+        if (files.isEmpty()) return;
+        status.setText("Loading " + files.size() + " file(s)…");
+        new Loader(files).execute();
+    }
+
+    private static void collect(File f, List<File> out) {
+        if (f.isDirectory()) {
+            File[] children = f.listFiles();
+            if (children == null) return;
+            Arrays.sort(children);
+            for (File c : children)
+                if (c.isFile() && !c.isHidden()) out.add(c);
+        } else if (f.isFile()) {
+            out.add(f);
+        }
+    }
+
+    // Well spread hues via the golden ratio; the first dataset keeps the classic purple
+    private static Color colorFor(int index) {
+        if (index == 0) return new Color(128, 0, 128);
+        float hue = (0.83f + index * 0.618034f) % 1f;
+        return Color.getHSBColor(hue, 0.8f, 0.75f);
+    }
+
+    // Plots the dataset; it only becomes the active one once its load batch is done
+    private void add(Dataset d) {
+        d.fn = d.series.toFunction(colorFor(datasets.size()));
+        datasets.add(d);
+        model.fireTableRowsInserted(datasets.size() - 1, datasets.size() - 1);
+        graph.addFunction(d.fn);
+    }
+
+    private void setShown(Dataset d, boolean visible) {
+        if (d.visible == visible) return;
+        d.visible = visible;
+        if (visible) graph.addFunction(d.fn);
+        else graph.removeFunction(d.fn);
+    }
+
+    // --- Concurrent loading ---
+    private final class Loader extends SwingWorker<Void, Dataset> {
+        private final List<File> files;
+        private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        private long startNanos;
+
+        Loader(List<File> files) { this.files = files; }
+
+        @Override protected Void doInBackground() throws InterruptedException {
+            startNanos = System.nanoTime();
+            ExecutorService io = Executors.newFixedThreadPool(Math.min(files.size(), IO_THREADS), r -> {
+                Thread t = new Thread(r, "dataset-loader");
+                t.setDaemon(true);
+                return t;
+            });
+            Semaphore parsePermits = new Semaphore(CORES);
+            CompletionService<Dataset> done = new ExecutorCompletionService<>(io);
+            Map<Future<Dataset>, File> fileOf = new IdentityHashMap<>(); // names the file of a failed load
+            try {
+                for (File f : files) {
+                    fileOf.put(done.submit(() -> {
+                        long t0 = System.nanoTime();
+                        if (f.getName().toLowerCase().endsWith(".hpc")) {
+                            DataSeries s = DataSeries.load(f);
+                            return new Dataset(f, f.length(), s, (System.nanoTime() - t0) / 1_000_000);
+                        }
+                        byte[] bytes = Files.readAllBytes(f.toPath());
+                        parsePermits.acquire();
+                        try {
+                            DataSeries s = DataSeries.parse(f.getName(), bytes);
+                            return new Dataset(f, bytes.length, s, (System.nanoTime() - t0) / 1_000_000);
+                        } finally {
+                            parsePermits.release();
+                        }
+                    }), f);
+                }
+                for (int i = 0; i < files.size(); i++) {
+                    Future<Dataset> next = done.take();
+                    try {
+                        publish(next.get());
+                    } catch (ExecutionException ex) {
+                        failures.add(fileOf.get(next).getName() + ": " + describe(ex.getCause()));
+                    }
+                }
+            } finally {
+                io.shutdownNow();
+            }
+            return null;
+        }
+
+        @Override protected void process(List<Dataset> loaded) {
+            for (Dataset d : loaded) add(d);
+        }
+
+        // The message, or the exception type for exceptions without one (e.g. an NPE)
+        private String describe(Throwable t) {
+            return t.getMessage() != null ? t.getMessage() : t.toString();
+        }
+
+        @Override protected void done() {
+            try {
+                get();
+            } catch (InterruptedException | CancellationException ex) {
+                failures.add("loading was interrupted");
+            } catch (ExecutionException ex) {
+                failures.add(describe(ex.getCause()));
+            }
+            // Activate the last file of the batch once, through the table selection
+            int last = datasets.size() - 1;
+            if (last >= 0 && files.size() > failures.size()) table.setRowSelectionInterval(last, last);
+
+            long ms = (System.nanoTime() - startNanos) / 1_000_000;
+            int ok = Math.max(0, files.size() - failures.size());
+            status.setText("Loaded " + ok + " of " + files.size() + " file(s) in " + ms + " ms");
+            if (!failures.isEmpty()) {
+                JOptionPane.showMessageDialog(DatasetManager.this,
+                        "Failed to load " + failures.size() + " file(s): " + failures.get(0),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    // --- Table ---
+    private final class DatasetTableModel extends AbstractTableModel {
+        private final String[] columns = {"Visible", "Name", "Size (KB)", "Points", "Load (ms)"};
+
+        @Override public int getRowCount() { return datasets.size(); }
+        @Override public int getColumnCount() { return columns.length; }
+        @Override public String getColumnName(int c) { return columns[c]; }
+
+        @Override public Class<?> getColumnClass(int c) {
+            switch (c) {
+                case 0: return Boolean.class;
+                case 1: return String.class;
+                default: return Long.class;
+            }
+        }
+
+        @Override public boolean isCellEditable(int row, int c) { return c == 0; }
+
+        @Override public Object getValueAt(int row, int c) {
+            Dataset d = datasets.get(row);
+            switch (c) {
+                case 0: return d.visible;
+                case 1: return d.file.getName();
+                case 2: return (d.bytes + 1023) / 1024;
+                case 3: return (long) d.series.size();
+                default: return d.loadMillis;
+            }
+        }
+
+        @Override public void setValueAt(Object value, int row, int c) {
+            if (c == 0) setShown(datasets.get(row), (Boolean) value);
+        }
+    }
+}
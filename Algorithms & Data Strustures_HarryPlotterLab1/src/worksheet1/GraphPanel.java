@@ -28,9 +28,27 @@ class GraphPanel extends JPanel {
     private Point dragStart = null;
     private Point dragEnd   = null;
 
+    // shift-drag selects an x-range and shows the area under the active series
+    private SeriesIntegral areaSource = null;
+    private boolean areaDrag = false;
+    private double areaX1, areaX2, areaValue;
+    private boolean showArea = false;
+
+    // progressive rendering: a coarse pass is drawn right away while the user
+    // interacts, the full-quality samples are computed off the EDT once idle
+    private static final int COARSE_DIVISOR = 8;
+    private static final int REFINE_DELAY_MS = 150;
+    private long sampleVersion = 0;          // bumped when x-range or functions change
+    private long refinedVersion = -1;
+    private double[][] refinedYs = null;     // full-quality y values per function
+    private SwingWorker<double[][], Void> refineWorker = null;
+    private final javax.swing.Timer refineTimer;
+
     public GraphPanel() {
         setBackground(Color.WHITE);
         setFocusable(true);
+        refineTimer = new javax.swing.Timer(REFINE_DELAY_MS, e -> startRefine());
+        refineTimer.setRepeats(false);
         installMouseHandlers();
         installKeyBindings();
     }
@@ -38,11 +56,21 @@ class GraphPanel extends JPanel {
     // --- Public API ---
     public void addFunction(PlottableFunction f) {
         functions.add(f);
+        updateCacheResolution();
+        invalidateSamples();
         repaint();
     }
 
+    public void removeFunction(PlottableFunction f) {
+        if (functions.remove(f)) {
+            invalidateSamples();
+            repaint();
+        }
+    }
+
     public void clearFunctions() {
         functions.clear();
+        invalidateSamples();
         zeroPoints.clear();
         maximaPoints.clear();
         minimaPoints.clear();
@@ -57,15 +85,106 @@ class GraphPanel extends JPanel {
     }
 
     public void resetView() {
-        xMin = -10; xMax = 10; yMin = -6; yMax = 6;
-        repaint();
+        setViewport(-10, 10, -6, 6);
     }
 
     public void setViewport(double xMin, double xMax, double yMin, double yMax) {
+        // sampled y values only depend on the x-range, vertical pans keep them
+        boolean xChanged = xMin != this.xMin || xMax != this.xMax;
         this.xMin = xMin; this.xMax = xMax; this.yMin = yMin; this.yMax = yMax;
+        if (xChanged) {
+            updateCacheResolution();
+            invalidateSamples();
+        }
+        firePropertyChange("viewport", null, new Rectangle2D.Double(xMin, yMin, xMax - xMin, yMax - yMin));
         repaint();
     }
 
+    public double getXMin() { return xMin; }
+    public double getXMax() { return xMax; }
+    public int getSamples() { return samples; }
+
+    public java.util.List<PlottableFunction> getFunctions() { return Collections.unmodifiableList(functions); }
+    public java.util.List<Point2D.Double> getZeroPoints() { return Collections.unmodifiableList(zeroPoints); }
+    public java.util.List<Point2D.Double> getMaximaPoints() { return Collections.unmodifiableList(maximaPoints); }
+    public java.util.List<Point2D.Double> getMinimaPoints() { return Collections.unmodifiableList(minimaPoints); }
+
+    // memoized functions quantize x to the current sample spacing
+    private void updateCacheResolution() {
+        double dx = (xMax - xMin) / samples;
+        for (PlottableFunction f : functions)
+            if (f.func instanceof MemoizingFunction)
+                ((MemoizingFunction) f.func).setResolution(dx);
+    }
+
+    // Hit and miss totals over all memoized functions, {hits, misses}
+    public long[] cacheStats() {
+        long hits = 0, misses = 0;
+        for (PlottableFunction f : functions) {
+            if (f.func instanceof MemoizingFunction) {
+                hits += ((MemoizingFunction) f.func).hits();
+                misses += ((MemoizingFunction) f.func).misses();
+            }
+        }
+        return new long[]{hits, misses};
+    }
+
+    // --- Progressive rendering ---
+    private void invalidateSamples() {
+        sampleVersion++;
+        if (refineWorker != null) {
+            refineWorker.cancel(false);
+            refineWorker = null;
+        }
+        refineTimer.restart();
+    }
+
+    private boolean isRefined() {
+        return refinedVersion == sampleVersion && refinedYs != null && refinedYs.length == functions.size();
+    }
+
+    // Runs once the viewport has been stable for REFINE_DELAY_MS.
+    private void startRefine() {
+        if (functions.isEmpty()) return;
+        final long version = sampleVersion;
+        final java.util.List<PlottableFunction> fns = new ArrayList<>(functions);
+        final double x0 = xMin, x1 = xMax;
+        final int n = samples;
+
+        refineWorker = new SwingWorker<double[][], Void>() {
+            @Override protected double[][] doInBackground() {
+                double[][] result = new double[fns.size()][];
+                for (int k = 0; k < fns.size(); k++) {
+                    if (isCancelled()) return null;
+                    result[k] = sample(fns.get(k), x0, x1, n);
+                }
+                return result;
+            }
+
+            @Override protected void done() {
+                if (isCancelled() || version != sampleVersion) return;
+                try {
+                    refinedYs = get();
+                    refinedVersion = version;
+                    refineWorker = null;
+                    repaint();
+                } catch (Exception ignored) {
+                    // a failing function keeps the coarse frame on screen
+                }
+            }
+        };
+        refineWorker.execute();
+    }
+
+    private static double[] sample(PlottableFunction f, double x0, double x1, int n) {
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            double t = i / (double) (n - 1);
+            ys[i] = f.func.applyAsDouble(x0 + t * (x1 - x0));
+        }
+        return ys;
+    }
+
     // --- Highlight zeros ---
     public void highlightZeros() {
         zeroPoints.clear();
@@ -119,11 +238,17 @@ class GraphPanel extends JPanel {
     }
 
     // --- Histogram feature ---
-    public void setHistogramData(java.util.List<Double> values) {
-        histValues = values.stream().mapToDouble(Double::doubleValue).toArray();
+    public void setHistogramData(double[] values) {
+        histValues = values;
         showHistogram = false; // wait until "Show histogram" clicked
     }
 
+    public void setAreaSource(SeriesIntegral source) {
+        areaSource = source;
+        showArea = false;
+        repaint();
+    }
+
     public void toggleHistogram() {
         showHistogram = !showHistogram;
         repaint();
@@ -159,6 +284,7 @@ class GraphPanel extends JPanel {
         drawFunctions(g2);
         drawZeroPoints(g2);
         drawExtremaPoints(g2);
+        drawArea(g2);
         drawRubberBand(g2);
         g2.dispose();
     }
@@ -197,20 +323,21 @@ class GraphPanel extends JPanel {
     }
 
     private void drawFunctions(Graphics2D g2) {
-        for (PlottableFunction f : functions) {
+        // coarse pass (fewer samples, no antialiasing) until the refined samples arrive
+        boolean refined = isRefined();
+        int n = refined ? samples : Math.max(2, samples / COARSE_DIVISOR);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                refined ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+
+        for (int k = 0; k < functions.size(); k++) {
+            PlottableFunction f = functions.get(k);
             g2.setColor(f.color);
-            double[] xs = new double[samples];
-            double[] ys = new double[samples];
-            for (int i = 0; i < samples; i++) {
-                double t = i / (double) (samples - 1);
-                double x = xMin + t * (xMax - xMin);
-                xs[i] = x;
-                ys[i] = f.func.applyAsDouble(x);
-            }
+            double[] ys = refined ? refinedYs[k] : sample(f, xMin, xMax, n);
             Path2D path = new Path2D.Double();
             boolean started = false;
-            for (int i = 0; i < samples; i++) {
-                int sx = xToScreen(xs[i]);
+            for (int i = 0; i < n; i++) {
+                double t = i / (double) (n - 1);
+                int sx = xToScreen(xMin + t * (xMax - xMin));
                 int sy = yToScreen(ys[i]);
                 if (!started) { path.moveTo(sx, sy); started = true; }
                 else { path.lineTo(sx, sy); }
@@ -218,6 +345,7 @@ class GraphPanel extends JPanel {
             g2.setStroke(new BasicStroke(2f));
             g2.draw(path);
         }
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
     }
 
     private void drawZeroPoints(Graphics2D g2) {
@@ -280,10 +408,20 @@ class GraphPanel extends JPanel {
     // --- input handling (unchanged) ---
     private void installMouseHandlers() {
         MouseAdapter ma = new MouseAdapter() {
-            @Override public void mousePressed(MouseEvent e) { dragStart = e.getPoint(); dragEnd = null; repaint(); }
+            @Override public void mousePressed(MouseEvent e) {
+                dragStart = e.getPoint(); dragEnd = null;
+                areaDrag = e.isShiftDown() && areaSource != null;
+                repaint();
+            }
             @Override public void mouseDragged(MouseEvent e) { dragEnd = e.getPoint(); repaint(); }
             @Override public void mouseReleased(MouseEvent e) {
-                if (dragStart != null && dragEnd != null) {
+                if (dragStart != null && dragEnd != null && areaDrag) {
+                    double a = screenToX(dragStart.x), b = screenToX(dragEnd.x);
+                    areaX1 = Math.min(a, b);
+                    areaX2 = Math.max(a, b);
+                    areaValue = areaSource.area(areaX1, areaX2);
+                    showArea = true;
+                } else if (dragStart != null && dragEnd != null) {
                     Rectangle r = rectFromPoints(dragStart, dragEnd);
                     if (r.width > 5 && r.height > 5) {
                         double nxMin = screenToX(r.x);
@@ -351,8 +489,25 @@ class GraphPanel extends JPanel {
         return new Rectangle(x, y, w, h);
     }
 
+    private void drawArea(Graphics2D g2) {
+        if (!showArea) return;
+        int sx1 = xToScreen(areaX1), sx2 = xToScreen(areaX2);
+        g2.setColor(new Color(255, 140, 0, 40));
+        g2.fillRect(sx1, 0, sx2 - sx1, getHeight());
+        g2.setColor(new Color(255, 140, 0));
+        g2.setStroke(new BasicStroke(1f));
+        g2.drawLine(sx1, 0, sx1, getHeight());
+        g2.drawLine(sx2, 0, sx2, getHeight());
+        g2.setColor(Color.DARK_GRAY);
+        g2.drawString(String.format("area [%.4g, %.4g] = %.6g", areaX1, areaX2, areaValue), sx1 + 6, 16);
+    }
+
     private void drawRubberBand(Graphics2D g2) {
-        if (dragStart != null && dragEnd != null) {
+        if (dragStart != null && dragEnd != null && areaDrag) {
+            int x = Math.min(dragStart.x, dragEnd.x), w = Math.abs(dragStart.x - dragEnd.x);
+            g2.setColor(new Color(255, 140, 0, 50));
+            g2.fillRect(x, 0, w, getHeight());
+        } else if (dragStart != null && dragEnd != null) {
             Rectangle r = rectFromPoints(dragStart, dragEnd);
             g2.setColor(new Color(30, 144, 255, 50));
             g2.fill(r);
@@ -0,0 +1,99 @@
+package worksheet1;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Opt-in memoizing wrapper for expensive functions.
+ * x is snapped to a power-of-two grid no coarser than the current plot resolution,
+ * so zooming back and forth hits the same keys. Storage is a set-associative table
+ * of primitive arrays with CLOCK eviction inside each set.
+ */
+class MemoizingFunction implements DoubleUnaryOperator {
+    private static final int WAYS = 4;
+
+    private final DoubleUnaryOperator delegate;
+    private final int setMask;
+    private final long[] keys;
+    private final double[] values;
+    private final boolean[] filled;
+    private final boolean[] referenced;
+    private final byte[] hands;      // CLOCK hand per set
+
+    private int exponent;            // grid spacing is 2^exponent
+    private long hits, misses;
+
+    MemoizingFunction(DoubleUnaryOperator delegate, int capacity) {
+        this.delegate = delegate;
+        int sets = Integer.highestOneBit(Math.max(1, capacity / WAYS));
+        this.setMask = sets - 1;
+        this.keys = new long[sets * WAYS];
+        this.values = new double[sets * WAYS];
+        this.filled = new boolean[sets * WAYS];
+        this.referenced = new boolean[sets * WAYS];
+        this.hands = new byte[sets];
+        setResolution(1e-3);
+    }
+
+    /** Sets the x spacing the plot currently samples at. */
+    synchronized void setResolution(double dx) {
+        if (dx > 0 && Double.isFinite(dx)) exponent = Math.getExponent(dx);
+    }
+
+    @Override
+    public double applyAsDouble(double x) {
+        if (!Double.isFinite(x)) return delegate.applyAsDouble(x);
+
+        int e;
+        synchronized (this) { e = exponent; }
+        // q * 2048 must fit in a long; beyond that the grid is no coarser than the doubles anyway
+        if (Math.abs(x) >= Math.scalb(1.0, 52 + e)) return delegate.applyAsDouble(x);
+        long q = Math.round(Math.scalb(x, -e));
+        long key = q * 2048 + (e + 1024);
+        int set = (int) (mix(key) & setMask);
+        int base = set * WAYS;
+
+        synchronized (this) {
+            for (int i = base; i < base + WAYS; i++) {
+                if (filled[i] && keys[i] == key) {
+                    referenced[i] = true;
+                    hits++;
+                    return values[i];
+                }
+            }
+            misses++;
+        }
+
+        // evaluate outside the lock, the function may be slow
+        double y = delegate.applyAsDouble(Math.scalb((double) q, e));
+
+        synchronized (this) {
+            int slot = victim(set, base);
+            keys[slot] = key;
+            values[slot] = y;
+            filled[slot] = true;
+            referenced[slot] = true;
+        }
+        return y;
+    }
+
+    private int victim(int set, int base) {
+        for (int i = base; i < base + WAYS; i++)
+            if (!filled[i]) return i;
+        while (true) {
+            int i = base + hands[set];
+            hands[set] = (byte) ((hands[set] + 1) % WAYS);
+            if (!referenced[i]) return i;
+            referenced[i] = false;
+        }
+    }
+
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    synchronized long hits()   { return hits; }
+    synchronized long misses() { return misses; }
+}
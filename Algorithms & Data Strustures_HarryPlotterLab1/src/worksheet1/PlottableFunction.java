@@ -13,4 +13,10 @@ class PlottableFunction {
         this.color = color;
         this.func = func;
     }
+
+    // Same function, but with evaluations memoized in a bounded cache
+    PlottableFunction memoized(int capacity) {
+        if (func instanceof MemoizingFunction) return this;
+        return new PlottableFunction(name, color, new MemoizingFunction(func, capacity));
+    }
 }
@@ -0,0 +1,63 @@
+package worksheet1;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Derived series of a loaded data set, built once:
+ * the cumulative trapezoidal integral as a prefix-sum array and the finite-difference
+ * derivative. Areas between two x-values are read off the prefix array in O(log n).
+ */
+class SeriesIntegral {
+    private final DataSeries series;
+    private final double[] cumulative; // integral from xs[0] to xs[i]
+
+    SeriesIntegral(DataSeries series) {
+        this.series = series;
+        double[] xs = series.xs, ys = series.ys;
+        int n = xs.length;
+        double[] cum = new double[n];
+        IntStream.range(1, n).parallel()
+                .forEach(i -> cum[i] = 0.5 * (ys[i - 1] + ys[i]) * (xs[i] - xs[i - 1]));
+        Arrays.parallelPrefix(cum, Double::sum);
+        this.cumulative = cum;
+    }
+
+    // Integral from the first sample to x (constant outside the data range)
+    double integralTo(double x) {
+        double[] xs = series.xs;
+        int n = xs.length;
+        if (n < 2 || x <= xs[0]) return 0;
+        if (x >= xs[n - 1]) return cumulative[n - 1];
+        int idx = series.lowerIndex(x); // xs[idx - 1] < x <= xs[idx]
+        double x0 = xs[idx - 1];
+        double y0 = series.ys[idx - 1];
+        double y = series.valueAt(x);
+        return cumulative[idx - 1] + 0.5 * (y0 + y) * (x - x0);
+    }
+
+    // Signed area under the series between x1 and x2
+    double area(double x1, double x2) {
+        return integralTo(x2) - integralTo(x1);
+    }
+
+    PlottableFunction integralFunction(java.awt.Color color) {
+        return new PlottableFunction("∫ " + series.name, color, this::integralTo);
+    }
+
+    // Central differences inside, one-sided at the ends; repeated x reuse the neighbour's slope
+    PlottableFunction derivativeFunction(java.awt.Color color) {
+        double[] xs = series.xs, ys = series.ys;
+        int n = xs.length;
+        double[] d = new double[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            int a = Math.max(0, i - 1), b = Math.min(n - 1, i + 1);
+            double dx = xs[b] - xs[a];
+            d[i] = dx != 0 ? (ys[b] - ys[a]) / dx : Double.NaN;
+        });
+        for (int i = 1; i < n; i++)
+            if (Double.isNaN(d[i]) && !Double.isNaN(d[i - 1])) d[i] = d[i - 1];
+        DataSeries derived = new DataSeries("d/dx " + series.name, xs, d);
+        return derived.toFunction(color);
+    }
+}
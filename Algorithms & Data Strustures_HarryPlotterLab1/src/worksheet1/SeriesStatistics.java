@@ -0,0 +1,189 @@
+package worksheet1;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Summary statistics of a data series.
+ * The whole series is scanned once with Welford updates, split across cores and
+ * merged with Chan's formulas. Visible-range queries are answered from prefix
+ * moment arrays and per-block min/max, so panning never rescans the data.
+ * Non-finite values are left out of the moments and reported as NaN count.
+ */
+class SeriesStatistics {
+    private static final int CHUNK = 1 << 16;
+    private static final int BLOCK = 1024;
+
+    // --- Mergeable central moments ---
+    static final class Moments {
+        long n, nan;
+        double mean, m2, m3;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+        void add(double y) {
+            if (!Double.isFinite(y)) { nan++; return; }
+            long n1 = n++;
+            double delta = y - mean;
+            double dn = delta / n;
+            double term1 = delta * dn * n1;
+            mean += dn;
+            m3 += term1 * dn * (n - 2) - 3 * dn * m2;
+            m2 += term1;
+            if (y < min) min = y;
+            if (y > max) max = y;
+        }
+
+        // Chan et al. pairwise update; neither argument is modified
+        static Moments merge(Moments a, Moments b) {
+            Moments r = new Moments();
+            r.n = a.n + b.n;
+            r.nan = a.nan + b.nan;
+            r.min = Math.min(a.min, b.min);
+            r.max = Math.max(a.max, b.max);
+            if (a.n == 0 || b.n == 0) {
+                Moments src = a.n == 0 ? b : a;
+                r.mean = src.mean; r.m2 = src.m2; r.m3 = src.m3;
+                return r;
+            }
+            double na = a.n, nb = b.n, n = na + nb;
+            double delta = b.mean - a.mean;
+            r.mean = a.mean + delta * nb / n;
+            r.m2 = a.m2 + b.m2 + delta * delta * na * nb / n;
+            r.m3 = a.m3 + b.m3 + delta * delta * delta * na * nb * (na - nb) / (n * n)
+                    + 3 * delta * (na * b.m2 - nb * a.m2) / n;
+            return r;
+        }
+
+        double variance() {
+            return n > 1 ? m2 / (n - 1) : Double.NaN;
+        }
+
+        double skewness() {
+            return m2 > 0 ? Math.sqrt(n) * m3 / Math.pow(m2, 1.5) : Double.NaN;
+        }
+
+        String describe() {
+            return String.format("count     %d%nmin       %.6g%nmax       %.6g%nmean      %.6g%n"
+                            + "variance  %.6g%nskewness  %.6g%nNaN       %d",
+                    n, n > 0 ? min : Double.NaN, n > 0 ? max : Double.NaN,
+                    n > 0 ? mean : Double.NaN, variance(), skewness(), nan);
+        }
+    }
+
+    private final DataSeries series;
+    private final Moments total;
+
+    // built on the first range query
+    private double shift;
+    private double[] s1, s2, s3;    // prefix sums of (y - shift)^k over finite values
+    private int[] finite;           // prefix count of finite values
+    private double[] blockMin, blockMax;
+
+    SeriesStatistics(DataSeries series) {
+        this.series = series;
+        this.total = compute(series.ys, 0, series.size());
+    }
+
+    Moments total() {
+        return total;
+    }
+
+    // One pass over ys[from, to), chunked across the common pool
+    static Moments compute(double[] ys, int from, int to) {
+        int chunks = Math.max(1, (to - from + CHUNK - 1) / CHUNK);
+        IntStream range = IntStream.range(0, chunks);
+        if (chunks > 1) range = range.parallel();
+        return range.mapToObj(c -> {
+                    Moments m = new Moments();
+                    int end = Math.min(to, from + (c + 1) * CHUNK);
+                    for (int i = from + c * CHUNK; i < end; i++) m.add(ys[i]);
+                    return m;
+                })
+                .reduce(new Moments(), Moments::merge);
+    }
+
+    // Builds the prefix arrays up front so range() stays cheap on the EDT
+    synchronized void prepareRanges() {
+        if (s1 == null) buildIndex();
+    }
+
+    // Statistics of the samples with x in [x0, x1]
+    synchronized Moments range(double x0, double x1) {
+        if (s1 == null) buildIndex();
+        int lo = series.lowerIndex(x0);
+        int hi = series.upperIndex(x1);
+        Moments r = new Moments();
+        if (hi <= lo) return r;
+
+        r.n = finite[hi] - finite[lo];
+        r.nan = (hi - lo) - r.n;
+        if (r.n == 0) return r;
+        double n = r.n;
+        double a = s1[hi] - s1[lo], b = s2[hi] - s2[lo], c = s3[hi] - s3[lo];
+        double m = a / n;
+        r.mean = m + shift;
+        r.m2 = Math.max(0, b - n * m * m);
+        r.m3 = c - 3 * m * b + 2 * n * m * m * m;
+        rangeMinMax(lo, hi, r);
+        return r;
+    }
+
+    private void rangeMinMax(int lo, int hi, Moments r) {
+        double[] ys = series.ys;
+        int firstBlock = (lo + BLOCK - 1) / BLOCK, lastBlock = hi / BLOCK;
+        if (firstBlock >= lastBlock) {
+            scan(ys, lo, hi, r);
+            return;
+        }
+        scan(ys, lo, firstBlock * BLOCK, r);
+        for (int b = firstBlock; b < lastBlock; b++) {
+            if (blockMin[b] < r.min) r.min = blockMin[b];
+            if (blockMax[b] > r.max) r.max = blockMax[b];
+        }
+        scan(ys, lastBlock * BLOCK, hi, r);
+    }
+
+    private static void scan(double[] ys, int from, int to, Moments r) {
+        for (int i = from; i < to; i++) {
+            double y = ys[i];
+            if (!Double.isFinite(y)) continue;
+            if (y < r.min) r.min = y;
+            if (y > r.max) r.max = y;
+        }
+    }
+
+    private void buildIndex() {
+        double[] ys = series.ys;
+        int n = ys.length;
+        // shifting by the mean keeps the prefix sums small and the differences accurate
+        shift = total.n > 0 ? total.mean : 0;
+        double[] p1 = new double[n + 1], p2 = new double[n + 1], p3 = new double[n + 1];
+        int[] cnt = new int[n + 1];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            double y = ys[i];
+            if (Double.isFinite(y)) {
+                double c = y - shift;
+                p1[i + 1] = c;
+                p2[i + 1] = c * c;
+                p3[i + 1] = c * c * c;
+                cnt[i + 1] = 1;
+            }
+        });
+        Arrays.parallelPrefix(p1, Double::sum);
+        Arrays.parallelPrefix(p2, Double::sum);
+        Arrays.parallelPrefix(p3, Double::sum);
+        Arrays.parallelPrefix(cnt, Integer::sum);
+
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        double[] bMin = new double[blocks], bMax = new double[blocks];
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            Moments m = new Moments();
+            scan(ys, b * BLOCK, Math.min(n, (b + 1) * BLOCK), m);
+            bMin[b] = m.min;
+            bMax[b] = m.max;
+        });
+
+        s1 = p1; s2 = p2; s3 = p3; finite = cnt;
+        blockMin = bMin; blockMax = bMax;
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import drawingTool.Scene;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Scene.draw into an off-screen image of the whole scene, scaled down to a fixed
+ * canvas so bigger scenes also exercise the level-of-detail tiers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class DrawBenchmark {
+    private static final int CANVAS = 1600;
+
+    @Param({ "100", "1000", "10000" })
+    int roosters;
+
+    // sprites: cached rooster images; direct: every part drawn; displayList: batched by color
+    @Param({ "sprites", "direct", "displayList" })
+    String mode;
+
+    Scene scene;
+    BufferedImage image;
+    double scale;
+
+    @Setup
+    public void setUp() {
+        scene = Scenes.packed(roosters);
+        scene.setSpriteCacheEnabled(mode.equals("sprites"));
+        scene.setDisplayListEnabled(mode.equals("displayList"));
+        image = new BufferedImage(CANVAS, CANVAS, BufferedImage.TYPE_INT_RGB);
+        scale = Math.min(1.0, (double) CANVAS / Scenes.sideFor(roosters));
+    }
+
+    @Benchmark
+    public BufferedImage draw() {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, CANVAS, CANVAS);
+            g.scale(scale, scale);
+            scene.draw(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import rooster.Rooster;
+
+/** LocatedRectangle.intersects between random pairs of placed roosters. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class IntersectsBenchmark {
+    private static final int PAIRS = 4096; // power of two, see next()
+
+    Rooster[] a = new Rooster[PAIRS], b = new Rooster[PAIRS];
+    int next;
+
+    @Setup
+    public void setUp() {
+        List<Rooster> roosters = Scenes.packed(1000).getRoosters();
+        SplittableRandom rand = new SplittableRandom(Scenes.SEED);
+        for (int i = 0; i < PAIRS; i++) {
+            a[i] = roosters.get(rand.nextInt(roosters.size()));
+            b[i] = roosters.get(rand.nextInt(roosters.size()));
+        }
+    }
+
+    @Benchmark
+    public boolean intersects() {
+        int i = next++ & (PAIRS - 1);
+        return a[i].intersects(b[i]);
+    }
+
+    @Benchmark
+    public boolean intersectsWithMargin() {
+        int i = next++ & (PAIRS - 1);
+        return a[i].intersects(b[i], 10);
+    }
+}
@@ -0,0 +1,35 @@
+package benchmarks;
+
+import drawingTool.Scene;
+import java.awt.Rectangle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Bulk scene mutations, including the dirty-region bookkeeping they return. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class MutationBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    int roosters;
+
+    Scene scene;
+
+    @Setup
+    public void setUp() {
+        scene = Scenes.packed(roosters);
+    }
+
+    @Benchmark
+    public Rectangle randomizeRoosters() {
+        return scene.randomizeRoosters();
+    }
+
+    @Benchmark
+    public Rectangle randomizeColors() {
+        return scene.randomizeColors();
+    }
+}
@@ -0,0 +1,33 @@
+package benchmarks;
+
+import drawingTool.PlacementStrategy;
+import drawingTool.Scene;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Scene construction, i.e. placing the roosters, for both strategies. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class PlacementBenchmark {
+    @Param({ "100", "1000", "10000" })
+    int roosters;
+
+    @Param({ "RANDOM", "PACKED" })
+    PlacementStrategy strategy;
+
+    int side;
+
+    @Setup
+    public void setUp() {
+        side = Scenes.sideFor(roosters);
+    }
+
+    @Benchmark
+    public Scene construct() {
+        return new Scene(roosters, side, side, strategy, Scenes.SEED);
+    }
+}
@@ -0,0 +1,21 @@
+package benchmarks;
+
+import drawingTool.PlacementStrategy;
+import drawingTool.Scene;
+
+// Shared scene setup: panels sized so that PACKED placement always fits
+final class Scenes {
+    static final long SEED = 42;
+
+    private Scenes() {}
+
+    // About 300x300 px per rooster leaves room for the largest size plus margin
+    static int sideFor(int roosters) {
+        return Math.max(800, (int) Math.ceil(Math.sqrt(roosters)) * 300);
+    }
+
+    static Scene packed(int roosters) {
+        int side = sideFor(roosters);
+        return new Scene(roosters, side, side, PlacementStrategy.PACKED, SEED);
+    }
+}
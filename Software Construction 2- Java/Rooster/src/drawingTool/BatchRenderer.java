@@ -0,0 +1,131 @@
+package drawingTool;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.imageio.ImageIO;
+
+/**
+ * Renders rooster scenes to PNG files without opening a window.
+ *
+ * Usage: {@code BatchRenderer <outDir> [scenes] [width] [height] [roosters] [seed] [threads] [scale]}
+ *
+ * The scale shrinks (or enlarges) the written image; small roosters are drawn with
+ * less detail (see {@link rooster.Rooster.Detail}).
+ *
+ * Scene k is built from a seed split off the base seed, so a run is reproducible.
+ * Memory stays bounded: each worker reuses one image, and at most two scenes per worker
+ * are queued; when the queue is full the submitting thread renders the scene itself.
+ */
+public class BatchRenderer {
+    private final int width, height, roosters, threads;
+    private final double scale;
+    private final File outDir;
+    private final ThreadLocal<BufferedImage> canvas;
+
+    public BatchRenderer(File outDir, int width, int height, int roosters, int threads) {
+        this(outDir, width, height, roosters, threads, 1);
+    }
+
+    public BatchRenderer(File outDir, int width, int height, int roosters, int threads, double scale) {
+        if (scale <= 0) throw new IllegalArgumentException("scale must be positive");
+        if (!Scene.canHold(width, height)) throw new IllegalArgumentException(width + "x" + height + " is too small for a rooster");
+        if (roosters < 0) throw new IllegalArgumentException("roosters must not be negative");
+        if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+        this.outDir = outDir;
+        this.width = width;
+        this.height = height;
+        this.roosters = roosters;
+        this.threads = threads;
+        this.scale = scale;
+        int imageWidth = Math.max(1, (int) Math.round(width * scale));
+        int imageHeight = Math.max(1, (int) Math.round(height * scale));
+        this.canvas = ThreadLocal.withInitial(() -> new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB));
+    }
+
+    /** Renders {@code scenes} scenes and returns how many were written. */
+    public int renderAll(int scenes, long seed) throws IOException, InterruptedException {
+        if (!outDir.isDirectory() && !outDir.mkdirs()) throw new IOException("Cannot create " + outDir);
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(2 * threads), new ThreadPoolExecutor.CallerRunsPolicy());
+        AtomicInteger written = new AtomicInteger();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        try {
+            for (int k = 0; k < scenes && failure.get() == null; k++) {
+                int index = k;
+                long sceneSeed = seeds.nextLong();
+                // Tasks the caller runs itself report through failure too, so a bad scene
+                // cannot skip the shutdown below and leave the pool threads running
+                pool.execute(() -> {
+                    try {
+                        renderScene(index, sceneSeed);
+                        written.incrementAndGet();
+                    } catch (IOException | RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+            }
+        } finally {
+            pool.shutdown();
+        }
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        Exception e = failure.get();
+        if (e instanceof IOException) throw (IOException) e;
+        if (e != null) throw (RuntimeException) e;
+        return written.get();
+    }
+
+    private void renderScene(int index, long seed) throws IOException {
+        Scene scene = new Scene(roosters, width, height, PlacementStrategy.RANDOM, seed);
+        scene.setSpriteCacheEnabled(false); // one-off scenes: a cache would only cost memory
+
+        BufferedImage image = canvas.get();
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.scale(scale, scale);
+            scene.draw(g);
+        } finally {
+            g.dispose();
+        }
+        ImageIO.write(image, "png", new File(outDir, String.format("scene-%06d.png", index)));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: BatchRenderer <outDir> [scenes] [width] [height] [roosters] [seed] [threads] [scale]");
+            System.exit(2);
+        }
+        System.setProperty("java.awt.headless", "true");
+
+        File outDir = new File(args[0]);
+        int scenes = intArg(args, 1, 100);
+        int width = intArg(args, 2, 800);
+        int height = intArg(args, 3, 600);
+        int roosters = intArg(args, 4, 3);
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 1L;
+        int threads = intArg(args, 6, Runtime.getRuntime().availableProcessors());
+        double scale = args.length > 7 ? Double.parseDouble(args[7]) : 1;
+
+        long start = System.nanoTime();
+        int written = new BatchRenderer(outDir, width, height, roosters, threads, scale).renderAll(scenes, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d scenes (%dx%d, %d roosters) in %.2f s: %.1f scenes/s on %d threads%n",
+                written, width, height, roosters, seconds, written / seconds, threads);
+    }
+
+    private static int intArg(String[] args, int i, int fallback) {
+        return args.length > i ? Integer.parseInt(args[i]) : fallback;
+    }
+}
@@ -8,11 +8,29 @@ public class Buttons {
     private JButton randomizeButton = new JButton("Randomize Roosters");
     private JButton showCombButton = new JButton("Toggle Combs");
     private JButton colorButton = new JButton("Randomize Colors");
+    private JButton animateButton = new JButton("Animate");
+    private JToggleButton flockButton = new JToggleButton("Flocking");
+    private JToggleButton tiledButton = new JToggleButton("Tiled Rendering");
+    private JToggleButton statsButton = new JToggleButton("Render Stats");
+    private JToggleButton displayListButton = new JToggleButton("Display List");
+    private JButton saveButton = new JButton("Save Scene");
+    private JButton openButton = new JButton("Open Scene");
+    private JButton undoButton = new JButton("Undo");
+    private JButton redoButton = new JButton("Redo");
 
     public void addActionListener(ActionListener listener) {
         randomizeButton.addActionListener(listener);
         showCombButton.addActionListener(listener);
         colorButton.addActionListener(listener);
+        animateButton.addActionListener(listener);
+        flockButton.addActionListener(listener);
+        tiledButton.addActionListener(listener);
+        statsButton.addActionListener(listener);
+        displayListButton.addActionListener(listener);
+        saveButton.addActionListener(listener);
+        openButton.addActionListener(listener);
+        undoButton.addActionListener(listener);
+        redoButton.addActionListener(listener);
     }
 
     public void addButtonsToAPanel(JFrame frame) {
@@ -22,6 +40,15 @@ public class Buttons {
         menu.add(randomizeButton);
         menu.add(showCombButton);
         menu.add(colorButton);
+        menu.add(animateButton);
+        menu.add(flockButton);
+        menu.add(tiledButton);
+        menu.add(statsButton);
+        menu.add(displayListButton);
+        menu.add(saveButton);
+        menu.add(openButton);
+        menu.add(undoButton);
+        menu.add(redoButton);
 
         menu.setBorder(BorderFactory.createRaisedBevelBorder());
         frame.add(menu, BorderLayout.WEST);
@@ -30,4 +57,13 @@ public class Buttons {
     public JButton getRandomizeButton() { return randomizeButton; }
     public JButton getShowCombButton() { return showCombButton; }
     public JButton getColorButton() { return colorButton; }
+    public JButton getAnimateButton() { return animateButton; }
+    public JToggleButton getFlockButton() { return flockButton; }
+    public JToggleButton getTiledButton() { return tiledButton; }
+    public JToggleButton getStatsButton() { return statsButton; }
+    public JToggleButton getDisplayListButton() { return displayListButton; }
+    public JButton getSaveButton() { return saveButton; }
+    public JButton getOpenButton() { return openButton; }
+    public JButton getUndoButton() { return undoButton; }
+    public JButton getRedoButton() { return redoButton; }
 }
@@ -1,25 +1,349 @@
 package drawingTool;
 
 import javax.swing.JPanel;
+import java.awt.Color;
+import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.BitSet;
+import javax.swing.Timer;
+import rooster.CountingGraphics2D;
+import rooster.RenderStats;
+import rooster.Rooster;
 
 
 public class DrawingArea extends JPanel {
     private static final long serialVersionUID = 1L;
+    // Starts at the default 800x600 and follows the panel size once it is laid out
     private Scene scene = new Scene(3);
+    private boolean trackSize = true; // false for scenes set from outside (e.g. loaded files)
+    private SceneHistory history = new SceneHistory(scene);
+    private TiledRenderer tiles; // null = draw directly through the panel's Graphics
+    private boolean displayList;  // kept across setScene
+    private SceneBuffer buffer = new SceneBuffer(); // null = draw the scene on every paint
+    private boolean animating; // SceneAnimator running: draw directly
+
+    // Mouse interaction: click selects, shift+click adds, dragging empty space rubber-bands,
+    // dragging a selected rooster moves the whole selection
+    private static final Color SELECTION_COLOR = new Color(30, 110, 255);
+    private final BitSet selection = new BitSet();
+    private Rectangle rubberBand;         // non-null while rubber-banding
+    private Point bandAnchor;             // where the rubber band started
+    private Point dragStart, dragLast;    // non-null while moving the selection
+    private Scene.Snapshot beforeDrag;    // undo step recorded if the drag moves something
+
+    // Instrumentation: while the overlay is on (or a JFR recording wants SceneDrawEvents)
+    // the scene is drawn through a CountingGraphics2D
+    private static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+    private static final Rectangle OVERLAY_BOUNDS = new Rectangle(8, 8, 300, 40 + 14 * RenderStats.Part.values().length);
+    private final RenderStats frameStats = new RenderStats();
+    private final Timer overlayTimer = new Timer(250, e -> repaint(OVERLAY_BOUNDS));
+    private boolean statsOverlay;
+    private long lastPaintNanos;
+    private double frameMillis, drawMillis; // exponentially smoothed
+    private final double[] partMillis = new double[RenderStats.Part.values().length];
 
     public DrawingArea() {
-        scene = new Scene(3);
+        addComponentListener(new ComponentAdapter() {
+            @Override public void componentResized(ComponentEvent e) { fitScene(); }
+        });
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override public void mousePressed(MouseEvent e) { pressed(e); }
+            @Override public void mouseDragged(MouseEvent e) { dragged(e); }
+            @Override public void mouseReleased(MouseEvent e) { released(e); }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
     }
     
     public Scene getScene() {
         return scene;
     }
 
+    // The scene keeps its own panel size, which may be larger than the window
+    public void setScene(Scene scene) {
+        this.scene = scene;
+        trackSize = false;
+        history = new SceneHistory(scene);
+        scene.setDisplayListEnabled(displayList);
+        if (buffer != null) buffer.invalidate();
+        selection.clear();
+        repaint();
+    }
+
+    // Moves only the roosters the new size pushes out or onto each other
+    private void fitScene() {
+        if (!trackSize) return;
+        repaintScene(scene.resize(getWidth(), getHeight()));
+    }
+
+    // Undo/redo steps of the current scene; record() before changing it
+    public SceneHistory getHistory() {
+        return history;
+    }
+
+    public void undo() {
+        restored(history.undo());
+    }
+
+    public void redo() {
+        restored(history.redo());
+    }
+
+    private void restored(Rectangle dirty) {
+        if (dirty == null) return;
+        selection.clear();
+        repaintScene(dirty);
+        fitScene(); // the step may have been taken at another panel size
+    }
+
+    public BitSet getSelection() {
+        return selection;
+    }
+
+    // Repaints only the given scene region (scene and panel share coordinates); every
+    // change to the scene is reported here, so the back buffer knows what to redraw
+    public void repaintScene(Rectangle dirty) {
+        if (dirty == null || dirty.isEmpty()) return;
+        if (buffer != null) buffer.addDirty(dirty);
+        repaint(dirty);
+    }
+
+    // While the animator runs every frame changes everything, so the back buffer is bypassed
+    void setAnimating(boolean animating) {
+        this.animating = animating;
+        if (buffer != null) buffer.invalidate();
+    }
+
+    // Display list mode batches the scene's drawing by color (not used by tiled rendering)
+    public void setDisplayList(boolean enabled) {
+        displayList = enabled;
+        scene.setDisplayListEnabled(enabled);
+        if (buffer != null) buffer.invalidate();
+        repaint();
+    }
+
+    // With the back buffer an unchanged scene is repainted with one blit (see SceneBuffer)
+    public void setBackBuffer(boolean enabled) {
+        if (enabled && buffer == null) buffer = new SceneBuffer();
+        if (!enabled) buffer = null;
+        repaint();
+    }
+
+    public SceneBuffer getBackBuffer() {
+        return buffer;
+    }
+
+    // Tiled mode renders the scene on all cores into an image, which is then drawn
+    public void setTiledRendering(boolean enabled) {
+        if (enabled && tiles == null) tiles = new TiledRenderer();
+        if (!enabled && tiles != null) {
+            tiles.shutdown();
+            tiles = null;
+        }
+        repaint();
+    }
+
+    public boolean isTiledRendering() {
+        return tiles != null;
+    }
     
+    // --- Mouse interaction ---
+
+    private void pressed(MouseEvent e) {
+        int hit = scene.pick(e.getX(), e.getY());
+        if (!e.isShiftDown() && (hit < 0 || !selection.get(hit))) clearSelection();
+        if (hit >= 0) {
+            select(hit);
+            dragStart = dragLast = e.getPoint();
+            beforeDrag = scene.snapshot();
+        } else {
+            bandAnchor = e.getPoint();
+            rubberBand = new Rectangle(bandAnchor);
+        }
+    }
+
+    private void dragged(MouseEvent e) {
+        if (dragLast != null) {
+            int dx = e.getX() - dragLast.x, dy = e.getY() - dragLast.y;
+            dragLast = e.getPoint();
+            moveSelection(dx, dy);
+        } else if (rubberBand != null) {
+            Rectangle old = rubberBand;
+            rubberBand = new Rectangle(bandAnchor);
+            rubberBand.add(e.getPoint());
+            repaintOutline(old.union(rubberBand));
+        }
+    }
+
+    private void released(MouseEvent e) {
+        if (dragLast != null) {
+            // Dropped onto a rooster outside the selection: put the selection back
+            boolean blocked = false;
+            for (int i = selection.nextSetBit(0); i >= 0 && !blocked; i = selection.nextSetBit(i + 1)) {
+                blocked = scene.overlapsNeighbours(i, selection::get);
+            }
+            if (blocked) moveSelection(dragStart.x - dragLast.x, dragStart.y - dragLast.y);
+            else if (!dragLast.equals(dragStart)) history.push(beforeDrag);
+            dragStart = dragLast = null;
+            beforeDrag = null;
+        } else if (rubberBand != null) {
+            for (int i : scene.pickAll(rubberBand)) select(i);
+            repaintOutline(rubberBand);
+            rubberBand = null;
+        }
+    }
+
+    private void moveSelection(int dx, int dy) {
+        if (dx == 0 && dy == 0) return;
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            repaintOutline(scene.moveRooster(i, dx, dy));
+        }
+    }
+
+    private void select(int index) {
+        selection.set(index);
+        repaintOutline(scene.getRoosters().get(index).getBounds());
+    }
+
+    private void clearSelection() {
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            repaintOutline(scene.getRoosters().get(i).getBounds());
+        }
+        selection.clear();
+    }
+
+    // Repaints a region including the selection outline drawn around it
+    private void repaintOutline(Rectangle r) {
+        repaintScene(new Rectangle(r.x - 2, r.y - 2, r.width + 4, r.height + 4));
+    }
+
+    // --- Instrumentation ---
+
+    public void setStatsOverlay(boolean enabled) {
+        statsOverlay = enabled;
+        if (enabled) overlayTimer.start(); else overlayTimer.stop();
+        repaint();
+    }
+
+    public boolean isStatsOverlay() {
+        return statsOverlay;
+    }
+
+    /** Counters of the last paint; only filled while the overlay or JFR recording is on. */
+    public RenderStats getFrameStats() {
+        return frameStats;
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        scene.draw(g);
+        // The overlay timer's own repaint is not a frame: it keeps the last frame's counters
+        Rectangle clip = g.getClipBounds();
+        boolean overlayRefresh = statsOverlay && clip != null && OVERLAY_BOUNDS.contains(clip);
+        SceneDrawEvent event = new SceneDrawEvent();
+        boolean counting = !overlayRefresh && (statsOverlay || event.isEnabled());
+        Graphics target = g;
+        if (counting && g instanceof Graphics2D) {
+            frameStats.reset();
+            target = new CountingGraphics2D((Graphics2D) g, frameStats);
+        }
+
+        event.begin();
+        long start = System.nanoTime();
+        if (tiles != null) {
+            // tiles are drawn on worker threads, so only the final image is counted here
+            // rendered in device pixels, so a HiDPI screen gets a sharp 1:1 blit
+            AffineTransform device = g instanceof Graphics2D ? ((Graphics2D) g).getTransform() : new AffineTransform();
+            BufferedImage image = tiles.render(scene, getWidth(), getHeight(), device.getScaleX(), device.getScaleY(),
+                    getBackground(), g.getClipBounds());
+            target.drawImage(image, 0, 0, getWidth(), getHeight(), null);
+        } else if (buffer != null && !animating && g instanceof Graphics2D) {
+            buffer.paint((Graphics2D) g, getGraphicsConfiguration(), scene, getWidth(), getHeight(), getBackground(),
+                    target != g ? frameStats : null);
+        } else {
+            super.paintComponent(g);
+            scene.draw(target);
+        }
+        long drawNanos = System.nanoTime() - start;
+        event.end();
+        paintSelection(g);
+
+        if (counting) {
+            if (event.shouldCommit()) commitEvents(event, clip);
+            if (statsOverlay) recordFrame(start, drawNanos);
+        }
+        if (statsOverlay) paintOverlay(g);
+    }
+
+    private void commitEvents(SceneDrawEvent event, Rectangle clip) {
+        event.roosters = scene.getRoosters().size();
+        event.drawCalls = frameStats.totalDrawCalls();
+        event.colorChanges = frameStats.totalColorChanges();
+        event.tiled = tiles != null;
+        event.clipArea = clip == null ? (long) getWidth() * getHeight() : (long) clip.width * clip.height;
+        event.commit();
+        for (RenderStats.Part part : RenderStats.Part.values()) {
+            if (frameStats.drawCalls(part) == 0) continue;
+            PartDrawEvent partEvent = new PartDrawEvent();
+            partEvent.part = part.label;
+            partEvent.drawCalls = frameStats.drawCalls(part);
+            partEvent.colorChanges = frameStats.colorChanges(part);
+            partEvent.time = frameStats.nanos(part);
+            partEvent.commit();
+        }
+    }
+
+    private void recordFrame(long paintStart, long drawNanos) {
+        if (lastPaintNanos != 0) frameMillis = smooth(frameMillis, (paintStart - lastPaintNanos) / 1e6);
+        lastPaintNanos = paintStart;
+        drawMillis = smooth(drawMillis, drawNanos / 1e6);
+        for (RenderStats.Part part : RenderStats.Part.values()) {
+            partMillis[part.ordinal()] = smooth(partMillis[part.ordinal()], frameStats.nanos(part) / 1e6);
+        }
+    }
+
+    private void paintOverlay(Graphics g) {
+        Rectangle box = OVERLAY_BOUNDS;
+        g.setColor(new Color(0, 0, 0, 170));
+        g.fillRect(box.x, box.y, box.width, box.height);
+        g.setColor(Color.WHITE);
+        g.setFont(OVERLAY_FONT);
+        int y = box.y + 16;
+        g.drawString(String.format("%.1f fps  frame %.1f ms  draw %.2f ms",
+                frameMillis > 0 ? 1000 / frameMillis : 0, frameMillis, drawMillis), box.x + 6, y);
+        y += 16;
+        g.drawString(String.format("%,d draw calls  %,d color changes",
+                frameStats.totalDrawCalls(), frameStats.totalColorChanges()), box.x + 6, y);
+        for (RenderStats.Part part : RenderStats.Part.values()) {
+            y += 14;
+            g.drawString(String.format("%-12s %7.3f ms %,9d calls", part.label, partMillis[part.ordinal()],
+                    frameStats.drawCalls(part)), box.x + 6, y);
+        }
+    }
+
+    private static double smooth(double average, double sample) {
+        return average == 0 ? sample : average * 0.9 + sample * 0.1;
+    }
+
+    private void paintSelection(Graphics g) {
+        g.setColor(SELECTION_COLOR);
+        Rectangle clip = g.getClipBounds();
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            if (i >= scene.getRoosters().size()) break;
+            Rooster rooster = scene.getRoosters().get(i);
+            Rectangle r = rooster.getBounds();
+            if (clip == null || clip.intersects(r.x - 2, r.y - 2, r.width + 4, r.height + 4)) {
+                g.drawRect(r.x - 1, r.y - 1, r.width + 1, r.height + 1);
+            }
+        }
+        if (rubberBand != null) g.drawRect(rubberBand.x, rubberBand.y, rubberBand.width, rubberBand.height);
     }
 }
@@ -8,13 +8,17 @@ public class DrawingTool extends JFrame implements ActionListener {
     private static final long serialVersionUID = 1L;
 	private DrawingArea drawing;
     private Buttons buttons = new Buttons();
+    private SceneAnimator animator;
+    private final String baseTitle;
 
     public DrawingTool(String title) {
         super(title);
+        baseTitle = title;
         setLayout(new BorderLayout());
 
         constructButtonMenu();
         constructDrawingArea();
+        constructAnimator();
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setSize(1000, 800);
         setVisible(true);
@@ -30,17 +34,86 @@ public class DrawingTool extends JFrame implements ActionListener {
         add(drawing, BorderLayout.CENTER);
     }
 
+    private void constructAnimator() {
+        animator = new SceneAnimator(drawing);
+        // frame/update times in the title while animating
+        new Timer(500, e -> {
+            if (animator.isRunning()) {
+                setTitle(String.format("%s – %.0f fps, frame %.1f ms, update %.2f ms", baseTitle,
+                        animator.getFps(), animator.getFrameMillis(), animator.getUpdateMillis()));
+            }
+        }).start();
+    }
+
     @Override
     public void actionPerformed(ActionEvent e) {
-        if (e.getSource() == buttons.getRandomizeButton()) {
-            drawing.getScene().randomizeRoosters();
-            drawing.repaint();
+        if (e.getSource() == buttons.getAnimateButton()) {
+            if (animator.isRunning()) {
+                animator.stop();
+                setTitle(baseTitle);
+            } else {
+                animator.start();
+            }
+        } else if (e.getSource() == buttons.getFlockButton()) {
+            animator.setFlocking(buttons.getFlockButton().isSelected());
+        } else if (e.getSource() == buttons.getTiledButton()) {
+            drawing.setTiledRendering(buttons.getTiledButton().isSelected());
+        } else if (e.getSource() == buttons.getStatsButton()) {
+            drawing.setStatsOverlay(buttons.getStatsButton().isSelected());
+        } else if (e.getSource() == buttons.getDisplayListButton()) {
+            drawing.setDisplayList(buttons.getDisplayListButton().isSelected());
+        } else if (e.getSource() == buttons.getSaveButton()) {
+            saveScene();
+        } else if (e.getSource() == buttons.getOpenButton()) {
+            openScene();
+        } else if (e.getSource() == buttons.getUndoButton() || e.getSource() == buttons.getRedoButton()) {
+            if (e.getSource() == buttons.getUndoButton()) drawing.undo(); else drawing.redo();
+            if (animator.isRunning()) { animator.stop(); animator.start(); } // pick up restored positions
+        } else if (e.getSource() == buttons.getRandomizeButton()) {
+            drawing.getHistory().record();
+            drawing.repaintScene(drawing.getScene().randomizeRoosters());
+            if (animator.isRunning()) { animator.stop(); animator.start(); } // pick up new positions
         } else if (e.getSource() == buttons.getShowCombButton()) {
-            drawing.getScene().toggleCombs();
-            drawing.repaint();
+            drawing.getHistory().record();
+            drawing.repaintScene(drawing.getScene().toggleCombs());
         } else if (e.getSource() == buttons.getColorButton()) {
-            drawing.getScene().randomizeColors();
-            drawing.repaint();
+            drawing.getHistory().record();
+            drawing.repaintScene(drawing.getScene().randomizeColors());
+        }
+    }
+
+    private JFileChooser sceneChooser() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+                "Rooster scenes (*." + SceneFile.EXTENSION + ")", SceneFile.EXTENSION));
+        return chooser;
+    }
+
+    private void saveScene() {
+        JFileChooser chooser = sceneChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.io.File file = chooser.getSelectedFile();
+        if (!file.getName().contains(".")) file = new java.io.File(file.getPath() + "." + SceneFile.EXTENSION);
+        try {
+            SceneFile.save(drawing.getScene(), file.toPath());
+        } catch (java.io.IOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not save scene: " + ex.getMessage(),
+                    "Save Scene", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void openScene() {
+        JFileChooser chooser = sceneChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            Scene scene = SceneFile.load(chooser.getSelectedFile().toPath());
+            boolean animating = animator.isRunning();
+            if (animating) animator.stop();
+            drawing.setScene(scene);
+            if (animating) animator.start();
+        } catch (java.io.IOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not open scene: " + ex.getMessage(),
+                    "Open Scene", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -0,0 +1,174 @@
+package drawingTool;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Boids-style flocking for rooster anchors: separation, alignment and cohesion within
+ * NEIGHBOUR_RADIUS, plus a non-overlap rule on the roosters' footprints.
+ *
+ * Each step rebuilds a uniform grid (cells NEIGHBOUR_RADIUS wide, stored as a counting
+ * sort into flat arrays), so a rooster only looks at the 3x3 cells around it. The boids
+ * terms read at most SAMPLE_PER_CELL roosters of a crowded cell and scale the separation
+ * by the cell's count, so they stay O(n) however dense the panel is. The non-overlap rule
+ * is exact: it tests every rooster of each cell that lies within a footprint's reach. The update
+ * reads the front state arrays and writes the back ones, so chunks of roosters can be
+ * updated in parallel without locking; the buffers are swapped afterwards and the old
+ * front stays readable as the previous state.
+ */
+public class FlockSimulation {
+    public static final double NEIGHBOUR_RADIUS = 200;
+    private static final double SEPARATION_RADIUS = 170;
+    private static final double COHESION = 0.3, ALIGNMENT = 1.2, SEPARATION = 20000;
+    private static final double MIN_SPEED = 20, MAX_SPEED = 90; // pixels per second
+    private static final int CHUNK = 1024;
+    private static final int SAMPLE_PER_CELL = 12;
+
+    private final int n, footprint, margin;
+    private final double maxX, maxY;
+
+    // [front/back][rooster]
+    private final double[][] x, y, vx, vy;
+    private int front;
+    private int steps; // rotates the samples taken from crowded cells
+
+    // grid: ids of cell c are cellIds[cellStart[c] .. cellStart[c + 1])
+    private final int cols, rows;
+    private final int[] cellStart, cellIds, cellOf;
+
+    /**
+     * @param footprint width and height of a rooster's footprint (LocatedRectangle size)
+     * @param margin    minimum gap kept between footprints
+     */
+    public FlockSimulation(double[] startX, double[] startY, double[] startVx, double[] startVy,
+                           int panelWidth, int panelHeight, int footprint, int margin) {
+        n = startX.length;
+        this.footprint = footprint;
+        this.margin = margin;
+        maxX = Math.max(0, panelWidth - footprint);
+        maxY = Math.max(0, panelHeight - footprint);
+        x = new double[][] { startX.clone(), new double[n] };
+        y = new double[][] { startY.clone(), new double[n] };
+        vx = new double[][] { startVx.clone(), new double[n] };
+        vy = new double[][] { startVy.clone(), new double[n] };
+
+        cols = Math.max(1, (int) Math.ceil(panelWidth / NEIGHBOUR_RADIUS));
+        rows = Math.max(1, (int) Math.ceil(panelHeight / NEIGHBOUR_RADIUS));
+        cellStart = new int[cols * rows + 1];
+        cellIds = new int[n];
+        cellOf = new int[n];
+    }
+
+    /** Random headings with speeds between MIN_SPEED and MAX_SPEED. */
+    public static void randomVelocities(double[] vx, double[] vy, SplittableRandom rand) {
+        for (int i = 0; i < vx.length; i++) {
+            double angle = rand.nextDouble() * 2 * Math.PI;
+            double speed = MIN_SPEED + rand.nextDouble() * (MAX_SPEED - MIN_SPEED);
+            vx[i] = Math.cos(angle) * speed;
+            vy[i] = Math.sin(angle) * speed;
+        }
+    }
+
+    public double[] x() { return x[front]; }
+    public double[] y() { return y[front]; }
+    public double[] prevX() { return x[1 - front]; }
+    public double[] prevY() { return y[1 - front]; }
+
+    public void step(double dt) {
+        buildGrid();
+        IntStream.range(0, (n + CHUNK - 1) / CHUNK).parallel()
+                 .forEach(c -> updateRange(c * CHUNK, Math.min(n, (c + 1) * CHUNK), dt));
+        front = 1 - front;
+        steps++;
+    }
+
+    // Counting sort of the roosters by grid cell
+    private void buildGrid() {
+        double[] px = x[front], py = y[front];
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < n; i++) {
+            int cx = clamp((int) (px[i] / NEIGHBOUR_RADIUS), cols);
+            int cy = clamp((int) (py[i] / NEIGHBOUR_RADIUS), rows);
+            cellOf[i] = cy * cols + cx;
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cols * rows; c++) cellStart[c + 1] += cellStart[c];
+        int[] fill = Arrays.copyOf(cellStart, cols * rows);
+        for (int i = 0; i < n; i++) cellIds[fill[cellOf[i]]++] = i;
+    }
+
+    private void updateRange(int from, int to, double dt) {
+        double[] px = x[front], py = y[front], pvx = vx[front], pvy = vy[front];
+        double[] nx = x[1 - front], ny = y[1 - front], nvx = vx[1 - front], nvy = vy[1 - front];
+        double r2 = NEIGHBOUR_RADIUS * NEIGHBOUR_RADIUS, s2 = SEPARATION_RADIUS * SEPARATION_RADIUS;
+        int reach = footprint + margin;
+
+        for (int i = from; i < to; i++) {
+            double xi = px[i], yi = py[i];
+            double sumX = 0, sumY = 0, sumVx = 0, sumVy = 0, sepX = 0, sepY = 0, pushX = 0, pushY = 0;
+            int neighbours = 0;
+            int cx = cellOf[i] % cols, cy = cellOf[i] / cols;
+            for (int gy = Math.max(0, cy - 1); gy <= Math.min(rows - 1, cy + 1); gy++) {
+                for (int gx = Math.max(0, cx - 1); gx <= Math.min(cols - 1, cx + 1); gx++) {
+                    int cell = gy * cols + gx;
+                    int first = cellStart[cell], count = cellStart[cell + 1] - first;
+                    // boids: from a crowded cell a window of SAMPLE_PER_CELL ids, starting somewhere
+                    // else for every rooster and step, each standing in for count / SAMPLE_PER_CELL
+                    int sampled = Math.min(count, SAMPLE_PER_CELL);
+                    int offset = count > sampled ? Math.floorMod(i * 0x9E3779B9 + steps * sampled, count) : 0;
+                    double weight = (double) count / sampled;
+                    // overlaps: every id of a cell whose x and y ranges come within reach
+                    boolean near = xi > gx * NEIGHBOUR_RADIUS - reach && xi < (gx + 1) * NEIGHBOUR_RADIUS + reach
+                                && yi > gy * NEIGHBOUR_RADIUS - reach && yi < (gy + 1) * NEIGHBOUR_RADIUS + reach;
+                    for (int k = 0, end = near ? count : sampled; k < end; k++) {
+                        int slot = near ? k : (offset + k) % count;
+                        int j = cellIds[first + slot];
+                        if (j == i) continue;
+                        double dx = px[j] - xi, dy = py[j] - yi;
+                        if (near) {
+                            // Footprints intersecting with margin (same test as LocatedRectangle.intersects):
+                            // each rooster moves half of the smaller overlap away from the other
+                            double overlapX = reach - Math.abs(dx), overlapY = reach - Math.abs(dy);
+                            if (overlapX > 0 && overlapY > 0) {
+                                if (overlapX < overlapY) pushX -= Math.copySign(overlapX / 2, dx == 0 ? i - j : dx);
+                                else pushY -= Math.copySign(overlapY / 2, dy == 0 ? i - j : dy);
+                            }
+                            if (Math.floorMod(slot - offset, count) >= sampled) continue; // not in the sample
+                        }
+                        double d2 = dx * dx + dy * dy;
+                        if (d2 >= r2) continue;
+                        neighbours++;
+                        sumX += px[j]; sumY += py[j];
+                        sumVx += pvx[j]; sumVy += pvy[j];
+                        if (d2 < s2 && d2 > 0) { sepX -= weight * dx / d2; sepY -= weight * dy / d2; }
+                    }
+                }
+            }
+
+            double ax = SEPARATION * sepX, ay = SEPARATION * sepY;
+            if (neighbours > 0) {
+                ax += COHESION * (sumX / neighbours - xi) + ALIGNMENT * (sumVx / neighbours - pvx[i]);
+                ay += COHESION * (sumY / neighbours - yi) + ALIGNMENT * (sumVy / neighbours - pvy[i]);
+            }
+            double vxi = pvx[i] + ax * dt, vyi = pvy[i] + ay * dt;
+            double speed = Math.hypot(vxi, vyi);
+            if (speed > MAX_SPEED) { vxi *= MAX_SPEED / speed; vyi *= MAX_SPEED / speed; }
+            else if (speed < MIN_SPEED && speed > 0) { vxi *= MIN_SPEED / speed; vyi *= MIN_SPEED / speed; }
+
+            // no velocity back into a rooster we are being pushed away from
+            if (vxi * pushX < 0) vxi = 0;
+            if (vyi * pushY < 0) vyi = 0;
+
+            double xn = xi + vxi * dt + pushX, yn = yi + vyi * dt + pushY;
+            if (xn < 0 || xn > maxX) { vxi = -vxi; xn = Math.max(0, Math.min(maxX, xn)); }
+            if (yn < 0 || yn > maxY) { vyi = -vyi; yn = Math.max(0, Math.min(maxY, yn)); }
+            nx[i] = xn; ny[i] = yn;
+            nvx[i] = vxi; nvy[i] = vyi;
+        }
+    }
+
+    private static int clamp(int v, int limit) {
+        return Math.max(0, Math.min(limit - 1, v));
+    }
+}
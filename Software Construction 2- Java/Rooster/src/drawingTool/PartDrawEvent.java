@@ -0,0 +1,28 @@
+package drawingTool;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/** JFR event with the totals of one body part over one paint (emitted with SceneDrawEvent). */
+@Name("rooster.PartDraw")
+@Label("Body Part Draw")
+@Category({ "Rooster", "Rendering" })
+@Description("Draw calls, color changes and time of one body part during one paint")
+class PartDrawEvent extends Event {
+    @Label("Part")
+    String part;
+
+    @Label("Draw Calls")
+    long drawCalls;
+
+    @Label("Color Changes")
+    long colorChanges;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long time;
+}
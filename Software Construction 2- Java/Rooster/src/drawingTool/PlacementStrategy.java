@@ -0,0 +1,9 @@
+package drawingTool;
+
+/** How a {@link Scene} positions its roosters when it is constructed. */
+public enum PlacementStrategy {
+    /** Random positions with rejection; roosters that find no free spot after 200 tries are dropped. */
+    RANDOM,
+    /** Shelf packing by painted size; places every rooster or fails up front. */
+    PACKED
+}
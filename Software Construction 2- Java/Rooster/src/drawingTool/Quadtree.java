@@ -0,0 +1,169 @@
+package drawingTool;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Loose quadtree over rectangles, storing int ids (e.g. rooster indices).
+ * A rectangle lives in the deepest node whose cell contains its center and is at least
+ * as large as the rectangle, so it never sticks out of the node by more than half a cell.
+ * Queries therefore only descend into nodes whose cell, grown by half its size on every
+ * side, touches the query area: O(log n) nodes plus the hits for small queries.
+ * Rectangles centered outside the root cell are kept in the root.
+ */
+public class Quadtree {
+    private static final int SPLIT_THRESHOLD = 8;
+    private static final int MAX_DEPTH = 20;
+
+    private final Node root;
+    private int size;
+
+    /** @param extent area most rectangles lie in; the root cell is the square covering it */
+    public Quadtree(Rectangle extent) {
+        int side = Integer.highestOneBit(Math.max(1, Math.max(extent.width, extent.height) - 1)) << 1;
+        root = new Node(extent.x, extent.y, side, 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(int id, Rectangle r) {
+        Node node = root;
+        while (node.children != null) {
+            Node child = node.childFor(r);
+            if (child == null) break;
+            node = child;
+        }
+        node.add(id, r);
+        size++;
+        if (node.count > SPLIT_THRESHOLD && node.children == null && node.depth < MAX_DEPTH) node.split();
+    }
+
+    /** Removes the id stored with exactly this rectangle; false if it was not found. */
+    public boolean remove(int id, Rectangle r) {
+        Node node = root;
+        Node[] path = new Node[MAX_DEPTH + 1];
+        int depth = 0;
+        path[0] = root;
+        while (node.children != null) {
+            Node child = node.childFor(r);
+            if (child == null) break;
+            node = child;
+            path[++depth] = node;
+        }
+        // Normally found in the deepest node; walk up in case it was stored before a split
+        for (int d = depth; d >= 0; d--) {
+            if (path[d].remove(id)) {
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void clear() {
+        root.children = null;
+        root.count = 0;
+        size = 0;
+    }
+
+    /**
+     * Visits the ids whose rectangle intersects the area until the visitor returns false.
+     * @return false if the visitor stopped the query early
+     */
+    public boolean query(Rectangle area, IntPredicate visitor) {
+        return root.query(area, visitor);
+    }
+
+    private static final class Node {
+        final int x, y, side, depth;
+        Node[] children; // null for a leaf; otherwise NW, NE, SW, SE
+        int count;
+        int[] ids = new int[4];
+        int[] rects = new int[16]; // x, y, width, height per id
+
+        Node(int x, int y, int side, int depth) {
+            this.x = x;
+            this.y = y;
+            this.side = side;
+            this.depth = depth;
+        }
+
+        // Child that r fits in loosely, or null if r must stay in this node
+        Node childFor(Rectangle r) {
+            int half = side >> 1;
+            if (half == 0 || Math.max(r.width, r.height) > half) return null;
+            long cx = (long) r.x + r.width / 2, cy = (long) r.y + r.height / 2;
+            if (cx < x || cy < y || cx >= (long) x + side || cy >= (long) y + side) return null;
+            int i = (cx >= x + half ? 1 : 0) + (cy >= y + half ? 2 : 0);
+            return children[i];
+        }
+
+        void add(int id, Rectangle r) {
+            add(id, r.x, r.y, r.width, r.height);
+        }
+
+        void add(int id, int rx, int ry, int rw, int rh) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                rects = Arrays.copyOf(rects, count * 8);
+            }
+            ids[count] = id;
+            int k = count * 4;
+            rects[k] = rx; rects[k + 1] = ry; rects[k + 2] = rw; rects[k + 3] = rh;
+            count++;
+        }
+
+        boolean remove(int id) {
+            for (int i = 0; i < count; i++) {
+                if (ids[i] != id) continue;
+                count--;
+                ids[i] = ids[count];
+                System.arraycopy(rects, count * 4, rects, i * 4, 4);
+                return true;
+            }
+            return false;
+        }
+
+        void split() {
+            int half = side >> 1;
+            children = new Node[] {
+                new Node(x, y, half, depth + 1), new Node(x + half, y, half, depth + 1),
+                new Node(x, y + half, half, depth + 1), new Node(x + half, y + half, half, depth + 1)
+            };
+            int[] oldIds = ids, oldRects = rects;
+            int oldCount = count;
+            ids = new int[4];
+            rects = new int[16];
+            count = 0;
+            Rectangle r = new Rectangle();
+            for (int i = 0; i < oldCount; i++) {
+                int k = i * 4;
+                r.setBounds(oldRects[k], oldRects[k + 1], oldRects[k + 2], oldRects[k + 3]);
+                Node child = childFor(r);
+                (child != null ? child : this).add(oldIds[i], r);
+            }
+        }
+
+        boolean query(Rectangle area, IntPredicate visitor) {
+            for (int i = 0; i < count; i++) {
+                int k = i * 4;
+                if (intersects(area, rects[k], rects[k + 1], rects[k + 2], rects[k + 3])
+                        && !visitor.test(ids[i])) return false;
+            }
+            if (children == null) return true;
+            for (Node child : children) {
+                int pad = child.side >> 1; // loose bounds
+                if (intersects(area, child.x - pad, child.y - pad, child.side + 2 * pad, child.side + 2 * pad)
+                        && !child.query(area, visitor)) return false;
+            }
+            return true;
+        }
+
+        private static boolean intersects(Rectangle a, int x, int y, int w, int h) {
+            return a.x < x + w && x < a.x + a.width && a.y < y + h && y < a.y + a.height;
+        }
+    }
+}
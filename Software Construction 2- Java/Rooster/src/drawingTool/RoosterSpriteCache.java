@@ -0,0 +1,154 @@
+package drawingTool;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import rooster.Rooster;
+import rooster.RoosterStore;
+
+/**
+ * Rasterizes each distinct rooster look once and then draws it with a single drawImage.
+ * A look is body/wing/tail color, size (rounded down to SIZE_STEP, so a sprite never
+ * paints outside the rooster's own bounds), the comb/hat flags and the animation pose.
+ * Sprites are rasterized at 1x; on a scaled device roosters are drawn part by part.
+ * Sprites are kept in LRU order and evicted once their pixels exceed the memory cap.
+ * Sprites used in the current frame are never evicted; when the cap is reached and
+ * nothing older can go, the rooster is drawn part by part instead, so a scene with
+ * more looks than fit in memory does not thrash.
+ */
+public class RoosterSpriteCache {
+    public static final double SIZE_STEP = 0.05;
+
+    private final long maxBytes;
+    private long usedBytes;
+    private final LinkedHashMap<Key, Sprite> sprites = new LinkedHashMap<>(64, 0.75f, true);
+    private final Key probe = new Key();          // reused for lookups
+    private final Rooster template = new Rooster(); // renders the sprites
+    private long frame;
+
+    public RoosterSpriteCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    // Call once per frame before drawing
+    public synchronized void beginFrame() {
+        frame++;
+    }
+
+    // Draws rooster i of the store at its own position; deviceScale is Rooster.deviceScale(g)
+    public void draw(Graphics g, RoosterStore store, int i, double deviceScale) {
+        Sprite sprite = deviceScale == 1 ? spriteFor(store, i) : null;
+        if (sprite != null) {
+            g.drawImage(sprite.image, store.x(i) + sprite.offsetX, store.y(i) + sprite.offsetY, null);
+        } else {
+            Rooster.drawAt(store, i, g, store.x(i), store.y(i), deviceScale);
+        }
+    }
+
+    public synchronized int size() {
+        return sprites.size();
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized void clear() {
+        sprites.clear();
+        usedBytes = 0;
+    }
+
+    private synchronized Sprite spriteFor(RoosterStore store, int i) {
+        double trueSize = store.size(i);
+        int bucket = (int) Math.floor(trueSize / SIZE_STEP);
+        if (bucket * SIZE_STEP > trueSize) bucket--; // division rounded up to the next step
+        probe.set(store.bodyRGB(i), store.wingRGB(i), store.tailRGB(i), bucket, store.showComb(i), store.hasHat(i),
+                store.wingFrame(i), store.walkFrame(i));
+        Sprite sprite = sprites.get(probe);
+        if (sprite == null) {
+            double size = bucket * SIZE_STEP;
+            Rectangle extent = Rooster.extentFor(size);
+            if (!makeRoom(4L * extent.width * extent.height)) return null;
+            sprite = render(store, i, size, extent);
+            sprites.put(probe.copy(), sprite);
+            usedBytes += sprite.bytes();
+        }
+        sprite.lastFrame = frame;
+        return sprite;
+    }
+
+    private Sprite render(RoosterStore store, int i, double size, Rectangle extent) {
+        template.setBodyColor(store.bodyColor(i));
+        template.setWingColor(store.wingColor(i));
+        template.setTailColor(store.tailColor(i));
+        template.setShowComb(store.showComb(i));
+        template.setHasHat(store.hasHat(i));
+        template.setSize(size);
+        template.setPose(store.wingFrame(i), store.walkFrame(i));
+
+        BufferedImage image = new BufferedImage(extent.width, extent.height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        template.drawAt(g, -extent.x, -extent.y);
+        g.dispose();
+        return new Sprite(image, extent.x, extent.y);
+    }
+
+    // Evicts least recently used sprites not drawn in this frame until the new one fits
+    private boolean makeRoom(long bytes) {
+        Iterator<Map.Entry<Key, Sprite>> it = sprites.entrySet().iterator();
+        while (usedBytes + bytes > maxBytes && it.hasNext()) {
+            Sprite eldest = it.next().getValue();
+            if (eldest.lastFrame == frame) return false;
+            usedBytes -= eldest.bytes();
+            it.remove();
+        }
+        return usedBytes + bytes <= maxBytes;
+    }
+
+    private static final class Sprite {
+        final BufferedImage image;
+        final int offsetX, offsetY;
+        long lastFrame;
+
+        Sprite(BufferedImage image, int offsetX, int offsetY) {
+            this.image = image;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+        }
+
+        long bytes() {
+            return 4L * image.getWidth() * image.getHeight();
+        }
+    }
+
+    private static final class Key {
+        long colors;   // body and wing RGB
+        long rest;     // tail RGB, size bucket and flags
+
+        void set(int body, int wing, int tail, int bucket, boolean comb, boolean hat,
+                 int wingFrame, int walkFrame) {
+            colors = ((long) body << 32) | (wing & 0xffffffffL);
+            rest = ((long) tail << 32) | ((long) (walkFrame + 1) << 24) | ((long) wingFrame << 20)
+                    | ((long) bucket << 2) | (comb ? 2 : 0) | (hat ? 1 : 0);
+        }
+
+        Key copy() {
+            Key k = new Key();
+            k.colors = colors;
+            k.rest = rest;
+            return k;
+        }
+
+        @Override public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).colors == colors && ((Key) o).rest == rest;
+        }
+
+        @Override public int hashCode() {
+            return Long.hashCode(colors * 31 + rest);
+        }
+    }
+}
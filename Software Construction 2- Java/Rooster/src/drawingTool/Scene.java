@@ -2,106 +2,520 @@ package drawingTool;
 
 import java.awt.Color;
 import java.awt.Graphics;
-import java.awt.Point;
-import java.util.ArrayList;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+import rooster.DisplayList;
 import rooster.Rooster;
+import rooster.RoosterStore;
 
 public class Scene {
-    private final ArrayList<Rooster> roosters;
-    private final int margin = 10; // margin between roosters`
+    // Rooster data lives in primitive arrays; the list hands out views onto them
+    private final RoosterStore store = new RoosterStore();
+    private final List<Rooster> roosters = new AbstractList<Rooster>() {
+        @Override public Rooster get(int i) {
+            if (i < 0 || i >= store.size()) throw new IndexOutOfBoundsException("index " + i);
+            return store.view(i);
+        }
+        @Override public int size() { return store.size(); }
+    };
+    private static final int margin = 10; // margin between roosters`
+    private RoosterSpriteCache sprites = new RoosterSpriteCache(64L << 20); // null = draw parts directly
+    private DisplayList displayList; // non-null: record all roosters, replay batched by color
+    // painted bounds of every rooster, used to draw only what intersects the clip
+    private final SpatialHash drawIndex = new SpatialHash(256);
+    private boolean indexStale = true; // rebuilt by the next clipped draw
+    // hit area of every rooster (painted bounds plus footprint), for picking and drop checks
+    private Quadtree pickIndex;
+    private boolean pickStale = true; // rebuilt by the next pick
+    private int panelWidth, panelHeight; // changed by resize()
+    // Every bulk operation splits its randomness off this stream, so a seed replays the scene
+    private final long seed;
+    private final SplittableRandom seeds;
+
+    private static final Color[] PLACEMENT_COLORS = { Color.RED, Color.YELLOW, Color.ORANGE, Color.BLUE, Color.GREEN };
 
     // Simple constructor (just for compatibility)
     public Scene(int numRoosters) {
         this(numRoosters, 800, 600); // default panel size
     }
 
-    // Main constructor
     public Scene(int numRoosters, int panelWidth, int panelHeight) {
-        roosters = new ArrayList<>();
+        this(numRoosters, panelWidth, panelHeight, PlacementStrategy.RANDOM);
+    }
 
-        if (panelWidth <= Rooster.ROOSTER_WIDTH + margin * 2 || panelHeight <= Rooster.ROOSTER_HEIGHT + margin * 2) {
+    public Scene(int numRoosters, int panelWidth, int panelHeight, PlacementStrategy strategy) {
+        this(numRoosters, panelWidth, panelHeight, strategy, new SplittableRandom().nextLong());
+    }
+
+    // Main constructor; the same seed gives the same scene and the same bulk operation results
+    public Scene(int numRoosters, int panelWidth, int panelHeight, PlacementStrategy strategy, long seed) {
+        this.panelWidth = panelWidth;
+        this.panelHeight = panelHeight;
+        this.seed = seed;
+        this.seeds = new SplittableRandom(seed);
+
+        if (!canHold(panelWidth, panelHeight)) {
             throw new IllegalArgumentException("Panel size is too small for rooster size and margin!");
         }
 
-        Random rand = new Random();
-        Color[] colors = { Color.RED, Color.YELLOW, Color.ORANGE, Color.BLUE, Color.GREEN };
+        Random rand = new Random(seeds.nextLong());
+        if (strategy == PlacementStrategy.PACKED) {
+            placePacked(numRoosters, panelWidth, panelHeight, rand);
+        } else {
+            placeRandom(numRoosters, panelWidth, panelHeight, rand);
+        }
+        reindexAll();
+    }
+
+    // Empty scene, filled by the caller (e.g. SceneFile); call reindexAll() after changes
+    Scene(int panelWidth, int panelHeight, long seed) {
+        this.panelWidth = panelWidth;
+        this.panelHeight = panelHeight;
+        this.seed = seed;
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    // Whether a panel of this size leaves room for one rooster and its margins
+    static boolean canHold(int width, int height) {
+        return width > Rooster.ROOSTER_WIDTH + margin * 2 && height > Rooster.ROOSTER_HEIGHT + margin * 2;
+    }
+
+    public int getPanelWidth() { return panelWidth; }
+    public int getPanelHeight() { return panelHeight; }
+    public long getSeed() { return seed; }
+
+    // Appends a rooster with random variations to the store
+    private Rooster newRandomRooster(Random rand) {
+        Color[] colors = PLACEMENT_COLORS;
+        Rooster rooster = store.view(store.add());
+
+        // Step 5: Assign variations here!
+        rooster.setBodyColor(colors[rand.nextInt(colors.length)]);
+        rooster.setWingColor(colors[rand.nextInt(colors.length)]);
+        rooster.setTailColor(colors[rand.nextInt(colors.length)]);
+        rooster.setHasHat(rand.nextBoolean());
+        rooster.setSize(0.8 + rand.nextDouble() * 0.8); // scale between 0.8 and 1.6
+        return rooster;
+    }
+
+    // Rejection sampling; a rooster is dropped after 200 failed attempts
+    private void placeRandom(int numRoosters, int panelWidth, int panelHeight, Random rand) {
+        // Grid over placed roosters, so each candidate is only tested against its neighbours
+        SpatialHash placed = newPlacementGrid();
+        for (int i = 0; i < numRoosters; i++) {
+            Rooster rooster = newRandomRooster(rand);
+            if (!placeFree(rooster.getIndex(), rand, placed)) store.removeLast();
+        }
+    }
+
+    private SpatialHash newPlacementGrid() {
+        return new SpatialHash(Math.max(Rooster.ROOSTER_WIDTH, Rooster.ROOSTER_HEIGHT) + margin);
+    }
+
+    // Tries up to 200 random positions inside the panel for rooster i and keeps the first one
+    // not overlapping a rooster in the grid (which it is then added to). Otherwise the rooster
+    // is left at the last candidate and false is returned.
+    private boolean placeFree(int i, RandomGenerator rand, SpatialHash placed) {
+        Rectangle area = new Rectangle();
+        for (int attempts = 0; attempts < 200; attempts++) {
+            int x = margin + rand.nextInt(panelWidth - Rooster.ROOSTER_WIDTH - margin * 2);
+            int y = margin + rand.nextInt(panelHeight - Rooster.ROOSTER_HEIGHT - margin * 2);
+            store.setPosition(i, x, y);
+
+            // everything within margin of the candidate could intersect it
+            area.setBounds(x - margin - 1, y - margin - 1,
+                    Rooster.FOOTPRINT + 2 * margin + 2, Rooster.FOOTPRINT + 2 * margin + 2);
+            if (placed.query(area, id -> !footprintsIntersect(i, id))) {
+                placed.insert(i, new Rectangle(x, y, Rooster.FOOTPRINT, Rooster.FOOTPRINT));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Shelf packing: biggest roosters first, left to right in rows as tall as their
+    // tallest rooster. The whole layout is computed before anything is added.
+    private void placePacked(int numRoosters, int panelWidth, int panelHeight, Random rand) {
+        Rooster[] batch = new Rooster[numRoosters];
+        Integer[] order = new Integer[numRoosters];
         for (int i = 0; i < numRoosters; i++) {
-            boolean placed = false;
-            int attempts = 0;
-            Rooster rooster = new Rooster();
-
-            // Step 5: Assign variations here!
-            rooster.setBodyColor(colors[rand.nextInt(colors.length)]);
-            rooster.setWingColor(colors[rand.nextInt(colors.length)]);
-            rooster.setTailColor(colors[rand.nextInt(colors.length)]);
-            rooster.setHasHat(rand.nextBoolean());
-            rooster.setSize(0.8 + rand.nextDouble() * 0.8); // scale between 0.8 and 1.6
-
-            // Try to place without overlapping others
-            while (!placed && attempts < 200) {
-                int x = margin + rand.nextInt(panelWidth - Rooster.ROOSTER_WIDTH - margin * 2);
-                int y = margin + rand.nextInt(panelHeight - Rooster.ROOSTER_HEIGHT - margin * 2);
-                rooster.setPosition(x, y);
-
-                boolean intersects = false;
-                for (Rooster other : roosters) {
-                    if (rooster.intersects(other, margin)) {
-                        intersects = true;
-                        break;
-                    }
-                }
-                if (!intersects) {
-                    placed = true;
-                    roosters.add(rooster);
-                }
-                attempts++;
+            batch[i] = newRandomRooster(rand);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(batch[b].getSize(), batch[a].getSize()));
+
+        int[] xs = new int[numRoosters], ys = new int[numRoosters];
+        int shelfX = margin, shelfY = margin, shelfHeight = 0;
+        for (int i : order) {
+            Rectangle extent = Rooster.extentFor(batch[i].getSize());
+            if (shelfX + extent.width > panelWidth - margin) {
+                shelfY += shelfHeight + margin;
+                shelfX = margin;
+                shelfHeight = 0;
+            }
+            if (extent.width > panelWidth - 2 * margin || shelfY + extent.height > panelHeight - margin) {
+                throw new IllegalArgumentException("Cannot fit " + numRoosters + " roosters into a "
+                        + panelWidth + "x" + panelHeight + " panel!");
             }
+            xs[i] = shelfX - extent.x;
+            ys[i] = shelfY - extent.y;
+            shelfX += extent.width + margin;
+            shelfHeight = Math.max(shelfHeight, extent.height);
         }
+
+        for (int i = 0; i < numRoosters; i++) batch[i].setPosition(xs[i], ys[i]);
     }
     
- // Scene.java
-    public void randomizeRoosters() {
-        for (Rooster rooster : roosters) {
-            // Randomize colors, position, comb, etc. as per your requirements
-            rooster.setRandomAttributes();
+    // Mutations return the region to repaint: union of old and new bounds of what changed.
+
+    // Looks are randomized in parallel; positions are then drawn in index order, each avoiding
+    // the roosters placed before it through a grid, like the initial RANDOM placement.
+    // A rooster that finds no free spot keeps its last candidate instead of being dropped.
+    public Rectangle randomizeRoosters() {
+        Rectangle dirty = forEachChunk((from, to, rand, region) -> {
+            for (int i = from; i < to; i++) {
+                addBounds(region, i);
+                store.randomizeLook(i, rand);
+            }
+        });
+        SplittableRandom rand = seeds.split();
+        SpatialHash placed = newPlacementGrid();
+        for (int i = 0; i < store.size(); i++) {
+            placeFree(i, rand, placed);
+            addBounds(dirty, i);
         }
+        reindexAll();
+        return dirty;
+    }
+
+    /**
+     * Adapts the scene to a new panel size. Only roosters that no longer fit get a new random
+     * position, clear of the others; the rest stay where they are, so a packed layout keeps
+     * its shape. A rooster still fits if its painted extent or its placement box (the area
+     * random placement keeps inside the panel) lies inside the new panel.
+     * Sizes too small to hold a rooster are ignored until the panel grows again.
+     */
+    public Rectangle resize(int width, int height) {
+        if (!canHold(width, height) || (width == panelWidth && height == panelHeight)) return emptyRegion();
+        panelWidth = width;
+        panelHeight = height;
+        pickIndex = null; // rebuilt over the new extent
+        pickStale = true;
+
+        // roosters that stay did not move, so they overlap no more than before
+        Rectangle panel = new Rectangle(0, 0, panelWidth, panelHeight);
+        BitSet moving = new BitSet(store.size());
+        for (int i = 0; i < store.size(); i++) {
+            boolean boxFits = store.x(i) >= 0 && store.y(i) >= 0 && store.x(i) <= panelWidth - Rooster.ROOSTER_WIDTH
+                    && store.y(i) <= panelHeight - Rooster.ROOSTER_HEIGHT;
+            if (!boxFits && !panel.contains(bounds(i))) moving.set(i);
+        }
+
+        Rectangle dirty = emptyRegion();
+        SplittableRandom rand = seeds.split();
+        for (int i = moving.nextSetBit(0); i >= 0; i = moving.nextSetBit(i + 1)) {
+            dirty.add(relocate(i, rand, moving));
+        }
+        return dirty;
+    }
+
+    // Random free position for a moving rooster, tested against the roosters that stay and
+    // those already relocated; after 200 attempts it is clamped into the panel instead
+    private Rectangle relocate(int i, SplittableRandom rand, BitSet moving) {
+        Rectangle dirty = bounds(i);
+        boolean placed = false;
+        for (int attempts = 0; attempts < 200 && !placed; attempts++) {
+            int x = margin + rand.nextInt(panelWidth - Rooster.ROOSTER_WIDTH - margin * 2);
+            int y = margin + rand.nextInt(panelHeight - Rooster.ROOSTER_HEIGHT - margin * 2);
+            moveRooster(i, x - store.x(i), y - store.y(i));
+            placed = !overlapsNeighbours(i, moving::get);
+        }
+        if (!placed) {
+            int x = Math.max(0, Math.min(panelWidth - Rooster.ROOSTER_WIDTH, store.x(i)));
+            int y = Math.max(0, Math.min(panelHeight - Rooster.ROOSTER_HEIGHT, store.y(i)));
+            moveRooster(i, x - store.x(i), y - store.y(i));
+        }
+        moving.clear(i);
+        dirty.add(bounds(i));
+        return dirty;
     }
     
  // Toggle combs on all roosters
-    public void toggleCombs() {
-        for (Rooster rooster : roosters) {
-            rooster.setShowComb(!rooster.getShowComb());
-        }
+    public Rectangle toggleCombs() {
+        return forEachChunk((from, to, rand, region) -> {
+            for (int i = from; i < to; i++) {
+                store.setShowComb(i, !store.showComb(i));
+                addBounds(region, i);
+            }
+        });
+    }
+
+    // Toggle the comb of a single rooster
+    public Rectangle toggleComb(int index) {
+        Rooster rooster = roosters.get(index);
+        rooster.setShowComb(!rooster.getShowComb());
+        return rooster.getBounds();
     }
 
     // Randomize colors for all roosters
-    public void randomizeColors() {
-        java.awt.Color[] palette = {
-            java.awt.Color.RED, java.awt.Color.YELLOW, java.awt.Color.ORANGE,
-            java.awt.Color.BLUE, java.awt.Color.GREEN, java.awt.Color.MAGENTA
-        };
-        java.util.Random rand = new java.util.Random();
+    public Rectangle randomizeColors() {
+        return forEachChunk((from, to, rand, region) -> {
+            for (int i = from; i < to; i++) {
+                store.randomizeColors(i, rand);
+                addBounds(region, i);
+            }
+        });
+    }
+
+    // --- Snapshots ---
 
-        for (Rooster rooster : roosters) {
-            rooster.setBodyColor(palette[rand.nextInt(palette.length)]);
-            rooster.setWingColor(palette[rand.nextInt(palette.length)]);
-            rooster.setTailColor(palette[rand.nextInt(palette.length)]);
+    /** State of a scene for undo: its roosters (sharing unchanged chunks) and panel size. */
+    public static final class Snapshot {
+        final Scene scene;
+        final RoosterStore.Snapshot roosters;
+        final int panelWidth, panelHeight;
+
+        private Snapshot(Scene scene, RoosterStore.Snapshot roosters, int panelWidth, int panelHeight) {
+            this.scene = scene;
+            this.roosters = roosters;
+            this.panelWidth = panelWidth;
+            this.panelHeight = panelHeight;
         }
     }
 
+    // O(chunks): the store only copies its chunk table
+    public Snapshot snapshot() {
+        return new Snapshot(this, store.snapshot(), panelWidth, panelHeight);
+    }
 
-    // Draw all roosters in the scene
+    /** Returns to a snapshot of this scene; the dirty region is the whole panel before and after. */
+    public Rectangle restore(Snapshot snapshot) {
+        if (snapshot.scene != this) throw new IllegalArgumentException("snapshot of another scene");
+        Rectangle dirty = new Rectangle(0, 0, panelWidth, panelHeight);
+        store.restore(snapshot.roosters);
+        panelWidth = snapshot.panelWidth;
+        panelHeight = snapshot.panelHeight;
+        pickIndex = null;
+        reindexAll();
+        dirty.add(new Rectangle(0, 0, panelWidth, panelHeight));
+        return dirty;
+    }
+
+    // --- Bulk operations ---
+
+    private interface ChunkTask {
+        void run(int from, int to, SplittableRandom rand, Rectangle dirty);
+    }
+
+    // Runs the task over RoosterStore.CHUNK-sized index ranges in parallel and returns the union
+    // of their dirty regions. The per-chunk streams are split in chunk order before anything
+    // runs, so the result depends on the seed but not on thread scheduling.
+    private Rectangle forEachChunk(ChunkTask task) {
+        int n = store.size();
+        int chunks = (n + RoosterStore.CHUNK - 1) / RoosterStore.CHUNK;
+        SplittableRandom op = seeds.split();
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        Rectangle[] regions = new Rectangle[chunks];
+        for (int c = 0; c < chunks; c++) {
+            streams[c] = op.split();
+            regions[c] = emptyRegion();
+        }
+        IntStream.range(0, chunks).parallel().forEach(c -> task.run(
+                c * RoosterStore.CHUNK, Math.min(n, (c + 1) * RoosterStore.CHUNK), streams[c], regions[c]));
+
+        store.touch();
+        Rectangle dirty = emptyRegion();
+        for (Rectangle region : regions) dirty.add(region);
+        return dirty;
+    }
+
+    private void addBounds(Rectangle region, int i) {
+        region.add(bounds(i));
+    }
+
+    // Painted area of rooster i, as Rooster.getBounds() without creating a view
+    private Rectangle bounds(int i) {
+        Rectangle r = Rooster.extentFor(store.size(i));
+        r.translate(store.x(i), store.y(i));
+        return r;
+    }
+
+    private Rectangle hitArea(int i) {
+        return bounds(i).union(new Rectangle(store.x(i), store.y(i), Rooster.FOOTPRINT, Rooster.FOOTPRINT));
+    }
+
+    // Negative size, so the first add() adopts the added rectangle instead of growing from (0, 0)
+    private static Rectangle emptyRegion() {
+        return new Rectangle(0, 0, -1, -1);
+    }
+
+    // Marks the draw index out of date after roosters were moved directly (e.g. by the
+    // animator); it is rebuilt once, by the next draw that needs it
+    public void reindexAll() {
+        store.touch();
+        indexStale = true;
+        pickStale = true;
+    }
+
+    private void rebuildIndex() {
+        drawIndex.clear();
+        for (int i = 0; i < store.size(); i++) drawIndex.insert(i, bounds(i));
+        indexStale = false;
+    }
+
+    private Quadtree pickIndex() {
+        if (pickStale) {
+            if (pickIndex == null) pickIndex = new Quadtree(new Rectangle(0, 0, panelWidth, panelHeight));
+            else pickIndex.clear();
+            for (int i = 0; i < store.size(); i++) pickIndex.insert(i, hitArea(i));
+            pickStale = false;
+        }
+        return pickIndex;
+    }
+
+    // --- Picking and moving ---
+
+    /** Topmost rooster (last drawn) whose painted bounds contain the point, or -1. */
+    public int pick(int px, int py) {
+        int[] best = { -1 };
+        pickIndex().query(new Rectangle(px, py, 1, 1), i -> {
+            if (i > best[0] && bounds(i).contains(px, py)) best[0] = i;
+            return true;
+        });
+        return best[0];
+    }
+
+    /** Roosters whose painted bounds intersect the area, in ascending order. */
+    public int[] pickAll(Rectangle area) {
+        int[][] found = { new int[16] };
+        int[] count = { 0 };
+        pickIndex().query(area, i -> {
+            if (!bounds(i).intersects(area)) return true;
+            if (count[0] == found[0].length) found[0] = Arrays.copyOf(found[0], count[0] * 2);
+            found[0][count[0]++] = i;
+            return true;
+        });
+        int[] ids = Arrays.copyOf(found[0], count[0]);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /** Moves one rooster, updating the indices in place instead of rebuilding them. */
+    public Rectangle moveRooster(int index, int dx, int dy) {
+        Rectangle before = bounds(index);
+        if (!pickStale) pickIndex.remove(index, hitArea(index));
+        store.setPosition(index, store.x(index) + dx, store.y(index) + dy);
+        store.touch();
+        if (!pickStale) pickIndex.insert(index, hitArea(index));
+        if (!indexStale) {
+            drawIndex.remove(index, before);
+            drawIndex.insert(index, bounds(index));
+        }
+        Rectangle dirty = bounds(index);
+        dirty.add(before);
+        return dirty;
+    }
+
+    /**
+     * Whether the rooster's footprint is within the scene margin of another rooster
+     * (LocatedRectangle.intersects). Only neighbours found in the pick index are tested;
+     * roosters accepted by {@code ignore} do not count.
+     */
+    public boolean overlapsNeighbours(int index, IntPredicate ignore) {
+        Rectangle near = new Rectangle(store.x(index) - margin - 1, store.y(index) - margin - 1,
+                Rooster.FOOTPRINT + 2 * margin + 2, Rooster.FOOTPRINT + 2 * margin + 2);
+        return !pickIndex().query(near, j -> j == index || ignore.test(j) || !footprintsIntersect(index, j));
+    }
+
+    // LocatedRectangle.intersects(other, margin) for two stored roosters, without views
+    private boolean footprintsIntersect(int i, int j) {
+        int xi = store.x(i), yi = store.y(i), xj = store.x(j), yj = store.y(j);
+        int side = Rooster.FOOTPRINT;
+        return !(xi + side + margin < xj || xi > xj + side + margin
+                || yi + side + margin <= yj || yi >= yj + side + margin);
+    }
+
+
+    // Draw the roosters intersecting the clip (all of them without a clip), in list order
     public void draw(Graphics g) {
-        for (Rooster rooster : roosters) {
-            Point pos = rooster.address();
-            rooster.drawAt(g, pos.x, pos.y);
+        if (displayList != null && g instanceof Graphics2D) {
+            Graphics2D g2 = (Graphics2D) g;
+            displayList.reset();
+            Graphics2D recorder = displayList.recorder(g2);
+            double scale = Rooster.deviceScale(g2); // the recorder reports g2's transform
+            forEachVisible(g, i -> {
+                displayList.beginItem(bounds(i));
+                Rooster.drawAt(store, i, recorder, store.x(i), store.y(i), scale);
+            });
+            displayList.replay(g2);
+            return;
+        }
+        if (sprites != null) sprites.beginFrame();
+        double scale = Rooster.deviceScale(g);
+        forEachVisible(g, i -> drawRooster(g, i, scale));
+    }
+
+    // Indices of the roosters to draw, in list order; works on the store, so no views
+    private void forEachVisible(Graphics g, IntConsumer action) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            for (int i = 0, n = store.size(); i < n; i++) action.accept(i);
+            return;
+        }
+        if (indexStale) rebuildIndex();
+        for (int i : drawIndex.queryDistinct(clip)) {
+            if (bounds(i).intersects(clip)) action.accept(i);
         }
     }
 
-    // Getter for roosters (if needed for later steps)
-    public ArrayList<Rooster> getRoosters() {
+    private void drawRooster(Graphics g, int i, double scale) {
+        // Sprites hold full detail; lower tiers are cheaper to draw directly
+        if (sprites != null && Rooster.detailFor(store.size(i), scale) == Rooster.Detail.FULL) {
+            sprites.draw(g, store, i, scale);
+        } else {
+            Rooster.drawAt(store, i, g, store.x(i), store.y(i), scale);
+        }
+    }
+
+    // Sprite cache on: one drawImage per rooster; off: every part is drawn each time
+    public void setSpriteCacheEnabled(boolean enabled) {
+        if (enabled && sprites == null) sprites = new RoosterSpriteCache(64L << 20);
+        if (!enabled) sprites = null;
+    }
+
+    // Display list on: roosters are recorded and replayed as one shape per color and layer
+    // (overrides the sprite cache); off: each rooster is drawn on its own
+    public void setDisplayListEnabled(boolean enabled) {
+        if (enabled && displayList == null) displayList = new DisplayList();
+        if (!enabled) displayList = null;
+    }
+
+    public boolean isDisplayListEnabled() {
+        return displayList != null;
+    }
+
+    // Getter for roosters (if needed for later steps); elements are views onto the store
+    public List<Rooster> getRoosters() {
         return roosters;
 
     }
+
+    /** Changes whenever the scene may look different; equal versions draw the same picture. */
+    public int getVersion() {
+        return store.version();
+    }
+
+    public RoosterStore getStore() {
+        return store;
+    }
 }
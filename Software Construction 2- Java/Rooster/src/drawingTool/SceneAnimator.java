@@ -0,0 +1,172 @@
+package drawingTool;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import javax.swing.Timer;
+import rooster.Rooster;
+import rooster.RoosterStore;
+
+/**
+ * Walks the roosters around and flaps their wings.
+ * One Swing timer drives the loop: the simulation advances in fixed STEP increments
+ * (as many as the elapsed time requires), and each frame shows the roosters
+ * interpolated between the last two simulation states. All per-rooster state is kept
+ * in primitive arrays allocated once in start().
+ * With flocking on, positions come from a {@link FlockSimulation} instead of
+ * independent straight-line walks.
+ */
+public class SceneAnimator {
+    public static final double STEP = 1.0 / 60;      // simulation step in seconds
+    private static final int MAX_STEPS_PER_FRAME = 5; // drop time instead of spiralling
+    private static final double WING_RATE = 9;        // wing phase, radians per second
+    private static final double WALK_RATE = 7;        // leg phase, radians per second
+
+    private final DrawingArea area;
+    private final Timer timer;
+
+    private double[] x, y, prevX, prevY, vx, vy;
+    private double[] wingPhase, walkPhase;
+    private double accumulator;
+    private boolean flocking;
+    private FlockSimulation flock; // non-null while running with flocking on
+    private long lastNanos;
+
+    // measurements, exponentially smoothed (milliseconds)
+    private double frameMillis, updateMillis;
+
+    public SceneAnimator(DrawingArea area) {
+        this.area = area;
+        this.timer = new Timer(15, e -> tick());
+        this.timer.setCoalesce(true);
+    }
+
+    public boolean isRunning() {
+        return timer.isRunning();
+    }
+
+    // Takes effect immediately; a running animation restarts from the current positions
+    public void setFlocking(boolean flocking) {
+        this.flocking = flocking;
+        if (timer.isRunning()) {
+            timer.stop();
+            start();
+        }
+    }
+
+    public boolean isFlocking() {
+        return flocking;
+    }
+
+    public void start() {
+        if (timer.isRunning()) return;
+        RoosterStore store = area.getScene().getStore();
+        int n = store.size();
+        x = new double[n]; y = new double[n];
+        prevX = new double[n]; prevY = new double[n];
+        vx = new double[n]; vy = new double[n];
+        wingPhase = new double[n]; walkPhase = new double[n];
+
+        Random rand = new Random();
+        for (int i = 0; i < n; i++) {
+            x[i] = prevX[i] = store.x(i);
+            y[i] = prevY[i] = store.y(i);
+            double speed = 20 + rand.nextDouble() * 40; // pixels per second
+            vx[i] = rand.nextBoolean() ? speed : -speed;
+            vy[i] = (rand.nextDouble() - 0.5) * speed * 0.5;
+            wingPhase[i] = rand.nextDouble() * 2 * Math.PI;
+            walkPhase[i] = rand.nextDouble() * 2 * Math.PI;
+        }
+        Scene scene = area.getScene();
+        if (flocking) {
+            FlockSimulation.randomVelocities(vx, vy, new SplittableRandom(rand.nextLong()));
+            flock = new FlockSimulation(x, y, vx, vy, scene.getPanelWidth(), scene.getPanelHeight(),
+                    Rooster.FOOTPRINT, 10);
+        } else {
+            flock = null;
+        }
+        accumulator = 0;
+        lastNanos = System.nanoTime();
+        area.setAnimating(true);
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+        area.setAnimating(false);
+        RoosterStore store = area.getScene().getStore();
+        for (int i = 0; i < store.size() && i < x.length; i++) store.setPose(i, 0, 0);
+        area.getScene().reindexAll();
+        area.repaint();
+    }
+
+    public double getFrameMillis() { return frameMillis; }
+    public double getUpdateMillis() { return updateMillis; }
+    public double getFps() { return frameMillis > 0 ? 1000 / frameMillis : 0; }
+
+    private void tick() {
+        long now = System.nanoTime();
+        double elapsed = (now - lastNanos) / 1e9;
+        lastNanos = now;
+        frameMillis = smooth(frameMillis, elapsed * 1000);
+
+        accumulator += elapsed;
+        int steps = 0;
+        while (accumulator >= STEP && steps < MAX_STEPS_PER_FRAME) {
+            update();
+            accumulator -= STEP;
+            steps++;
+        }
+        if (steps == MAX_STEPS_PER_FRAME) accumulator = 0;
+        updateMillis = smooth(updateMillis, (System.nanoTime() - now) / 1e6);
+
+        present(accumulator / STEP);
+    }
+
+    // One fixed simulation step
+    private void update() {
+        if (flock != null) {
+            flock.step(STEP);
+            x = flock.x(); y = flock.y();
+            prevX = flock.prevX(); prevY = flock.prevY();
+            for (int i = 0; i < x.length; i++) {
+                wingPhase[i] += WING_RATE * STEP;
+                walkPhase[i] += WALK_RATE * STEP;
+            }
+            return;
+        }
+        Scene scene = area.getScene();
+        int maxX = scene.getPanelWidth() - Rooster.ROOSTER_WIDTH;
+        int maxY = scene.getPanelHeight() - Rooster.ROOSTER_HEIGHT;
+        for (int i = 0; i < x.length; i++) {
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            x[i] += vx[i] * STEP;
+            y[i] += vy[i] * STEP;
+            if (x[i] < 0 || x[i] > maxX) { vx[i] = -vx[i]; x[i] = Math.max(0, Math.min(maxX, x[i])); }
+            if (y[i] < 0 || y[i] > maxY) { vy[i] = -vy[i]; y[i] = Math.max(0, Math.min(maxY, y[i])); }
+            wingPhase[i] += WING_RATE * STEP;
+            walkPhase[i] += WALK_RATE * STEP;
+        }
+    }
+
+    // Writes the interpolated state straight into the store and repaints
+    private void present(double alpha) {
+        RoosterStore store = area.getScene().getStore();
+        int n = Math.min(x.length, store.size());
+        for (int i = 0; i < n; i++) {
+            store.setPosition(i, (int) (prevX[i] + (x[i] - prevX[i]) * alpha),
+                                 (int) (prevY[i] + (y[i] - prevY[i]) * alpha));
+            double wing = wingPhase[i] + WING_RATE * STEP * alpha;
+            double walk = walkPhase[i] + WALK_RATE * STEP * alpha;
+            // wing lift 0..3 and leg swing -1..1 are in range by construction
+            store.setPose(i, (int) Math.round((Math.sin(wing) + 1) * 1.5), (int) Math.round(Math.sin(walk)));
+        }
+        store.touch();
+        area.getScene().reindexAll();
+        area.repaint();
+    }
+
+    private static double smooth(double average, double sample) {
+        return average == 0 ? sample : average * 0.9 + sample * 0.1;
+    }
+}
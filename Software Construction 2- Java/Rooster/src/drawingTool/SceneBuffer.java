@@ -0,0 +1,151 @@
+package drawingTool;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import rooster.CountingGraphics2D;
+import rooster.RenderStats;
+
+/**
+ * Back buffer holding a rendered scene between paints. It redraws the scene only when the
+ * scene or its version changed (or the buffer was lost); otherwise a paint is one blit.
+ *
+ * The buffer is a VolatileImage when the graphics configuration accelerates one, and a
+ * compatible BufferedImage otherwise (headless, software pipelines). Changed regions are
+ * reported with {@link #addDirty}; when the version changed, the union of those regions is
+ * redrawn, or the whole buffer if none was reported. The buffer has the device resolution
+ * of the target, so HiDPI screens stay sharp.
+ */
+public class SceneBuffer {
+    private VolatileImage volatileImage;
+    private BufferedImage bufferedImage;
+    private GraphicsConfiguration probed; // configuration the acceleration check was made for
+    private boolean accelerated;
+    private Scene scene;      // what the buffer shows: this scene at this version
+    private int version;
+    private boolean valid;
+    private Rectangle dirty; // union of the regions reported since the last redraw, or null
+    private int redraws;
+
+    /** Forces a full redraw on the next paint (e.g. after the rendering mode changed). */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /** Reports a scene region (scene coordinates) that changed and must be redrawn. */
+    public void addDirty(Rectangle region) {
+        if (region == null || region.isEmpty()) return;
+        if (dirty == null) dirty = new Rectangle(region);
+        else dirty.add(region);
+    }
+
+    /** How often scene content was drawn into the buffer (blits not counted). */
+    public int getRedraws() {
+        return redraws;
+    }
+
+    /**
+     * Paints the scene into g over the area width x height, redrawing the buffer where needed.
+     * @param gc    configuration of the component painted on, or null (then a BufferedImage is used)
+     * @param stats counts the drawing into the buffer (and the blit), or null
+     */
+    public void paint(Graphics2D g, GraphicsConfiguration gc, Scene scene, int width, int height,
+                      Color background, RenderStats stats) {
+        if (width <= 0 || height <= 0) return;
+        AffineTransform device = g.getTransform();
+        double sx = Math.abs(device.getScaleX()) > 0 ? Math.abs(device.getScaleX()) : 1;
+        double sy = Math.abs(device.getScaleY()) > 0 ? Math.abs(device.getScaleY()) : 1;
+        int w = (int) Math.ceil(width * sx), h = (int) Math.ceil(height * sy);
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, width, height);
+        Graphics2D target = stats != null ? new CountingGraphics2D(g, stats) : g;
+
+        if (gc == null || GraphicsEnvironment.isHeadless() || !accelerated(gc)) {
+            if (bufferedImage == null || bufferedImage.getWidth() != w || bufferedImage.getHeight() != h) {
+                bufferedImage = gc != null ? gc.createCompatibleImage(w, h)
+                                           : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+                valid = false;
+            }
+            update(bufferedImage, scene, sx, sy, background, stats);
+            blit(target, bufferedImage, width, height);
+            return;
+        }
+
+        bufferedImage = null;
+        if (volatileImage == null || volatileImage.getWidth() != w || volatileImage.getHeight() != h) {
+            if (volatileImage != null) volatileImage.flush();
+            volatileImage = gc.createCompatibleVolatileImage(w, h);
+            valid = false;
+        }
+        for (;;) {
+            int status = volatileImage.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                volatileImage.flush();
+                volatileImage = gc.createCompatibleVolatileImage(w, h);
+                valid = false;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                valid = false; // the surface was lost and comes back empty
+            }
+            update(volatileImage, scene, sx, sy, background, stats);
+            blit(target, volatileImage, width, height);
+            if (!volatileImage.contentsLost()) return;
+            valid = false; // lost while drawing or blitting: redraw everything
+        }
+    }
+
+    // Whether gc accelerates volatile images; checked once per configuration
+    private boolean accelerated(GraphicsConfiguration gc) {
+        if (gc != probed) {
+            VolatileImage probe = gc.createCompatibleVolatileImage(16, 16);
+            accelerated = probe.getCapabilities().isAccelerated();
+            probe.flush();
+            probed = gc;
+            if (!accelerated && volatileImage != null) {
+                volatileImage.flush();
+                volatileImage = null;
+            }
+        }
+        return accelerated;
+    }
+
+    // Redraws the buffer: the reported regions when the scene changed, all of it when it is
+    // invalid or the change was not reported, nothing otherwise
+    private void update(Image image, Scene scene, double sx, double sy, Color background, RenderStats stats) {
+        boolean sameScene = valid && scene == this.scene;
+        if (sameScene && scene.getVersion() == version) {
+            dirty = null; // reported, but nothing the buffer shows has changed
+            return;
+        }
+
+        Rectangle all = new Rectangle(0, 0, (int) Math.ceil(image.getWidth(null) / sx),
+                                            (int) Math.ceil(image.getHeight(null) / sy));
+        Rectangle area = sameScene && dirty != null ? dirty.intersection(all) : all;
+        dirty = null;
+        Graphics2D g = (Graphics2D) image.getGraphics();
+        try {
+            g.scale(sx, sy);
+            g.clip(area); // Scene.draw culls against the clip
+            Graphics2D target = stats != null ? new CountingGraphics2D(g, stats) : g;
+            target.setColor(background);
+            target.fillRect(area.x, area.y, area.width, area.height);
+            scene.draw(target);
+        } finally {
+            g.dispose();
+        }
+        this.scene = scene;
+        version = scene.getVersion();
+        valid = true;
+        redraws++;
+    }
+
+    private static void blit(Graphics g, Image image, int width, int height) {
+        g.drawImage(image, 0, 0, width, height, null);
+    }
+}
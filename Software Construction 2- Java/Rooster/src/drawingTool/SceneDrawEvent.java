@@ -0,0 +1,30 @@
+package drawingTool;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event for one DrawingArea paint; the event duration is the time spent drawing. */
+@Name("rooster.SceneDraw")
+@Label("Scene Draw")
+@Category({ "Rooster", "Rendering" })
+@Description("One paint of the drawing area")
+class SceneDrawEvent extends Event {
+    @Label("Roosters")
+    int roosters;
+
+    @Label("Draw Calls")
+    long drawCalls;
+
+    @Label("Color Changes")
+    long colorChanges;
+
+    @Label("Tiled")
+    boolean tiled;
+
+    @Label("Clip Area")
+    @Description("Pixels in the repainted region")
+    long clipArea;
+}
@@ -0,0 +1,81 @@
+package drawingTool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import rooster.RoosterStore;
+
+/**
+ * Binary scene files (.rsc), little-endian:
+ * <pre>
+ * int   magic "RSC1"
+ * int   version
+ * long  seed
+ * int   panel width, panel height
+ * int   rooster count
+ * count records of RoosterStore.RECORD_BYTES bytes (position, size, colors, flags)
+ * </pre>
+ * Saving streams the store through one direct buffer; loading maps the file and decodes
+ * the records straight into a new scene's store.
+ */
+public final class SceneFile {
+    public static final String EXTENSION = "rsc";
+
+    private static final int MAGIC = 0x31435352; // "RSC1" in little-endian byte order
+    private static final int VERSION = 2; // 2: 16-bit flags with color-set bits
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 4;
+    private static final int BUFFER_RECORDS = 1 << 15;
+
+    private SceneFile() {}
+
+    public static void save(Scene scene, Path file) throws IOException {
+        RoosterStore store = scene.getStore();
+        int n = store.size();
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_RECORDS * RoosterStore.RECORD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buf.putInt(MAGIC).putInt(VERSION).putLong(scene.getSeed())
+               .putInt(scene.getPanelWidth()).putInt(scene.getPanelHeight()).putInt(n);
+            for (int from = 0; from < n; from += BUFFER_RECORDS) {
+                int to = Math.min(n, from + BUFFER_RECORDS);
+                if (buf.remaining() < (to - from) * RoosterStore.RECORD_BYTES) flush(ch, buf);
+                store.writeRecords(from, to, buf);
+            }
+            flush(ch, buf);
+        }
+    }
+
+    public static Scene load(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = ch.size();
+            if (length < HEADER_BYTES) throw new IOException(file + " is not a scene file (too short)");
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (map.getInt(0) != MAGIC) throw new IOException(file + " is not a scene file");
+            int version = map.getInt(4);
+            if (version != VERSION) throw new IOException(file + ": unsupported scene file version " + version);
+            long seed = map.getLong(8);
+            int width = map.getInt(16), height = map.getInt(20), count = map.getInt(24);
+            if (count < 0 || length != HEADER_BYTES + (long) count * RoosterStore.RECORD_BYTES) {
+                throw new IOException(file + ": size does not match " + count + " roosters");
+            }
+
+            Scene scene = new Scene(width, height, seed);
+            scene.getStore().readRecords(map, HEADER_BYTES, count);
+            scene.reindexAll();
+            return scene;
+        }
+    }
+
+    private static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+}
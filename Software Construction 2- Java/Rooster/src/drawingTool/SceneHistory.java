@@ -0,0 +1,80 @@
+package drawingTool;
+
+import java.awt.Rectangle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import rooster.RoosterStore;
+
+/**
+ * Bounded undo/redo history of one scene. Entries are {@link Scene.Snapshot}s, which share
+ * unchanged rooster chunks with the scene and with each other, so recording one costs
+ * O(chunks) and an entry only holds memory for the chunks changed after it.
+ *
+ * That memory is accounted whenever an entry is added; the oldest entries are dropped while
+ * there are more than {@code maxEntries} or they hold more than {@code maxBytes}. The newest
+ * entry's cost only shows once the scene is changed, so it is checked at the next record.
+ */
+public class SceneHistory {
+    private final Scene scene;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Deque<Scene.Snapshot> undo = new ArrayDeque<>(); // newest first
+    private final Deque<Scene.Snapshot> redo = new ArrayDeque<>();
+
+    public SceneHistory(Scene scene) {
+        this(scene, 50, 64L << 20);
+    }
+
+    public SceneHistory(Scene scene, int maxEntries, long maxBytes) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be at least 1");
+        this.scene = scene;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /** Call before changing the scene: the current state becomes the next undo step. */
+    public void record() {
+        push(scene.snapshot());
+    }
+
+    /** Adds a state taken earlier (e.g. when a drag started) as the next undo step. */
+    public void push(Scene.Snapshot before) {
+        undo.push(before);
+        redo.clear();
+        trim();
+    }
+
+    public boolean canUndo() { return !undo.isEmpty(); }
+    public boolean canRedo() { return !redo.isEmpty(); }
+    public int undoSteps() { return undo.size(); }
+
+    /** Restores the previous state; returns the dirty region, or null if there is nothing to undo. */
+    public Rectangle undo() {
+        if (undo.isEmpty()) return null;
+        redo.push(scene.snapshot());
+        return scene.restore(undo.pop());
+    }
+
+    /** Re-applies an undone step; returns the dirty region, or null if there is nothing to redo. */
+    public Rectangle redo() {
+        if (redo.isEmpty()) return null;
+        undo.push(scene.snapshot());
+        return scene.restore(redo.pop());
+    }
+
+    /** Bytes of rooster data held only by the history, not shared with the current scene. */
+    public long retainedBytes() {
+        List<RoosterStore.Snapshot> all = new ArrayList<>(undo.size() + redo.size());
+        for (Scene.Snapshot s : undo) all.add(s.roosters);
+        for (Scene.Snapshot s : redo) all.add(s.roosters);
+        return scene.getStore().retainedBytes(all);
+    }
+
+    // Drops the oldest undo steps past the limits (always keeping the newest one)
+    private void trim() {
+        while (undo.size() > maxEntries) undo.removeLast();
+        while (undo.size() > 1 && retainedBytes() > maxBytes) undo.removeLast();
+    }
+}
@@ -0,0 +1,141 @@
+package drawingTool;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Uniform grid over rectangles, storing int ids (e.g. list indices).
+ * An id is registered in every cell its rectangle touches, so a query only
+ * visits the cells around the query area instead of every stored rectangle.
+ * Cells live in an open-addressing table keyed by the packed cell coordinates; emptied
+ * cells keep their slot and storage, so rebuilding the index allocates almost nothing.
+ */
+public class SpatialHash {
+    private final int cellSize;
+    // Linear probing table; bags[i] == null marks a free slot
+    private long[] keys = new long[256];
+    private IdBag[] bags = new IdBag[256];
+    private int used;
+
+    public SpatialHash(int cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be positive");
+        this.cellSize = cellSize;
+    }
+
+    public void insert(int id, Rectangle r) {
+        for (int cy = cell(r.y); cy <= cell(r.y + r.height); cy++)
+            for (int cx = cell(r.x); cx <= cell(r.x + r.width); cx++)
+                bag(key(cx, cy), true).add(id);
+    }
+
+    public void remove(int id, Rectangle r) {
+        for (int cy = cell(r.y); cy <= cell(r.y + r.height); cy++) {
+            for (int cx = cell(r.x); cx <= cell(r.x + r.width); cx++) {
+                IdBag bag = bag(key(cx, cy), false);
+                if (bag != null) bag.remove(id);
+            }
+        }
+    }
+
+    public void clear() {
+        for (IdBag bag : bags) if (bag != null) bag.size = 0;
+    }
+
+    /**
+     * Visits the ids stored in the cells touching r until the visitor returns false.
+     * An id may be visited more than once if its rectangle spans several cells.
+     * @return false if the visitor stopped the query early
+     */
+    public boolean query(Rectangle r, IntPredicate visitor) {
+        for (int cy = cell(r.y); cy <= cell(r.y + r.height); cy++) {
+            for (int cx = cell(r.x); cx <= cell(r.x + r.width); cx++) {
+                IdBag bag = bag(key(cx, cy), false);
+                if (bag == null) continue;
+                for (int i = 0; i < bag.size; i++)
+                    if (!visitor.test(bag.ids[i])) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Ids whose cells touch r, without duplicates and in ascending order. */
+    public int[] queryDistinct(Rectangle r) {
+        IdBag found = new IdBag();
+        query(r, id -> { found.add(id); return true; });
+        int[] ids = Arrays.copyOf(found.ids, found.size);
+        Arrays.sort(ids);
+        int n = 0;
+        for (int i = 0; i < ids.length; i++)
+            if (i == 0 || ids[i] != ids[i - 1]) ids[n++] = ids[i];
+        return Arrays.copyOf(ids, n);
+    }
+
+    private int cell(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    private IdBag bag(long key, boolean create) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (bags[i] == null) {
+                if (!create) return null;
+                if (2 * (used + 1) > keys.length) {
+                    rehash();
+                    return bag(key, true);
+                }
+                used++;
+                keys[i] = key;
+                return bags[i] = new IdBag();
+            }
+            if (keys[i] == key) return bags[i];
+        }
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        IdBag[] oldBags = bags;
+        keys = new long[oldKeys.length * 2];
+        bags = new IdBag[oldBags.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldBags[j] == null) continue;
+            int i = slot(oldKeys[j], mask);
+            while (bags[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            bags[i] = oldBags[j];
+        }
+    }
+
+    // The high bits of a key depend on both coordinates
+    private static int slot(long key, int mask) {
+        return (int) (key >>> 32) & mask;
+    }
+
+    // Multiplying by an odd constant keeps keys unique and spreads both coordinates into
+    // the high bits; the plain packed value clusters neighbouring cells
+    private static long key(int cx, int cy) {
+        return (((long) cx << 32) | (cy & 0xffffffffL)) * 0x9E3779B97F4A7C15L;
+    }
+
+    // Growable int list, avoids boxing ids
+    private static final class IdBag {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package drawingTool;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import rooster.Rooster;
+import rooster.RoosterStore;
+
+/**
+ * Renders a scene by splitting the canvas into square tiles and drawing the tiles
+ * concurrently into one shared image. Roosters are first binned into every tile their
+ * painted bounds overlap; a tile draws its bin in scene order with its own clip, so
+ * overlapping roosters stack as in {@link Scene#draw} (outlines crossing a seam may step
+ * one pixel differently). Tiles only ever write their own pixels, so the workers need
+ * no locking.
+ *
+ * On a scaled device (HiDPI) the image and the tile grid are in device pixels, and each
+ * tile draws the scene scaled, so the image is blitted 1:1 instead of blown up.
+ */
+public class TiledRenderer {
+    public static final int DEFAULT_TILE_SIZE = 256; // about one large rooster, so few roosters span many tiles
+
+    private final int tileSize;
+    private final ExecutorService pool;
+    private BufferedImage image;
+    private double scaleX = 1, scaleY = 1; // device pixels per scene unit of the image
+
+    // Bins in compressed form: tile t owns binIds[binStart[t] .. binStart[t + 1])
+    private int[] binStart = new int[0];
+    private int[] binIds = new int[0];
+
+    public TiledRenderer() {
+        this(DEFAULT_TILE_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public TiledRenderer(int tileSize, int threads) {
+        if (tileSize <= 0 || threads <= 0) throw new IllegalArgumentException("tile size and threads must be positive");
+        this.tileSize = tileSize;
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "tile-renderer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Renders the tiles of the scene intersecting {@code clip} (all tiles when null or when
+     * the image had to be reallocated) and returns the image. Pixels outside the rendered
+     * tiles keep their previous contents.
+     */
+    public BufferedImage render(Scene scene, int width, int height, Color background, Rectangle clip) {
+        return render(scene, width, height, 1, 1, background, clip);
+    }
+
+    /**
+     * Like {@link #render(Scene, int, int, Color, Rectangle)} for a device with scale sx, sy
+     * (the scale of its Graphics transform): the image is ceil(width * sx) x ceil(height * sy)
+     * pixels and is meant to be drawn into width x height.
+     */
+    public BufferedImage render(Scene scene, int width, int height, double sx, double sy, Color background,
+                                Rectangle clip) {
+        sx = Math.abs(sx) > 0 ? Math.abs(sx) : 1;
+        sy = Math.abs(sy) > 0 ? Math.abs(sy) : 1;
+        int w = Math.max(1, (int) Math.ceil(width * sx)), h = Math.max(1, (int) Math.ceil(height * sy));
+        if (image == null || image.getWidth() != w || image.getHeight() != h || sx != scaleX || sy != scaleY) {
+            image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            scaleX = sx;
+            scaleY = sy;
+            clip = null;
+        }
+        Rectangle deviceClip = clip != null ? toDevice(clip) : null;
+        int cols = (w + tileSize - 1) / tileSize;
+        int rows = (h + tileSize - 1) / tileSize;
+        bin(scene.getStore(), cols, rows);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                Rectangle tile = new Rectangle(col * tileSize, row * tileSize, tileSize, tileSize)
+                        .intersection(new Rectangle(0, 0, w, h));
+                if (deviceClip != null && !tile.intersects(deviceClip)) continue;
+                int t = row * cols + col;
+                tasks.add(() -> {
+                    renderTile(scene.getStore(), t, tile, background);
+                    return null;
+                });
+            }
+        }
+        try {
+            for (Future<Void> f : pool.invokeAll(tasks)) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tile rendering failed", e.getCause());
+        }
+        return image;
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // Two passes over the store: count per tile, then fill. Ids are appended in ascending
+    // order, so each bin is already in drawing order.
+    private void bin(RoosterStore store, int cols, int rows) {
+        int tiles = cols * rows;
+        if (binStart.length < tiles + 1) binStart = new int[tiles + 1];
+        else Arrays.fill(binStart, 0, tiles + 1, 0);
+
+        int n = store.size();
+        int[] span = new int[4];
+        for (int i = 0; i < n; i++) {
+            if (!tileSpan(store, i, cols, rows, span)) continue;
+            for (int row = span[2]; row <= span[3]; row++)
+                for (int col = span[0]; col <= span[1]; col++) binStart[row * cols + col + 1]++;
+        }
+        for (int t = 0; t < tiles; t++) binStart[t + 1] += binStart[t];
+        if (binIds.length < binStart[tiles]) binIds = new int[binStart[tiles]];
+
+        int[] fill = Arrays.copyOf(binStart, tiles);
+        for (int i = 0; i < n; i++) {
+            if (!tileSpan(store, i, cols, rows, span)) continue;
+            for (int row = span[2]; row <= span[3]; row++)
+                for (int col = span[0]; col <= span[1]; col++) binIds[fill[row * cols + col]++] = i;
+        }
+    }
+
+    // tile is in image pixels; the roosters are drawn in scene coordinates through the scale
+    private void renderTile(RoosterStore store, int t, Rectangle tile, Color background) {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setClip(tile);
+            g.setColor(background);
+            g.fillRect(tile.x, tile.y, tile.width, tile.height);
+            g.scale(scaleX, scaleY);
+            double scale = Rooster.deviceScale(g);
+            for (int k = binStart[t]; k < binStart[t + 1]; k++) {
+                int i = binIds[k];
+                Rooster.drawAt(store, i, g, store.x(i), store.y(i), scale);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Tile columns and rows (inclusive) covered by rooster i: {col0, col1, row0, row1}.
+    // False when the rooster lies entirely off the canvas.
+    private boolean tileSpan(RoosterStore store, int i, int cols, int rows, int[] span) {
+        Rectangle r = Rooster.extentFor(store.size(i));
+        r.translate(store.x(i), store.y(i));
+        r = toDevice(r);
+        if (r.x + r.width <= 0 || r.y + r.height <= 0 || r.x >= cols * tileSize || r.y >= rows * tileSize) return false;
+        span[0] = clamp(r.x / tileSize, cols);
+        span[1] = clamp((r.x + r.width - 1) / tileSize, cols);
+        span[2] = clamp(r.y / tileSize, rows);
+        span[3] = clamp((r.y + r.height - 1) / tileSize, rows);
+        return true;
+    }
+
+    // Image pixels covering a rectangle in scene coordinates
+    private Rectangle toDevice(Rectangle r) {
+        int x0 = (int) Math.floor(r.x * scaleX), y0 = (int) Math.floor(r.y * scaleY);
+        int x1 = (int) Math.ceil((r.x + r.width) * scaleX), y1 = (int) Math.ceil((r.y + r.height) * scaleY);
+        return new Rectangle(x0, y0, x1 - x0, y1 - y0);
+    }
+
+    private static int clamp(int v, int limit) {
+        return Math.max(0, Math.min(limit - 1, v));
+    }
+}
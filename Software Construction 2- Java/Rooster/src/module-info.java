@@ -6,4 +6,8 @@
  */
 module Lab2 {
     requires java.desktop;
+    requires jdk.jfr;
+
+    exports drawingTool;
+    exports rooster;
 }
@@ -0,0 +1,132 @@
+package rooster;
+
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.util.Map;
+
+/**
+ * Graphics2D that forwards everything to another Graphics2D and counts draw/fill calls
+ * and color/paint changes into a {@link RenderStats}, attributed to the part currently
+ * being drawn. Graphics created from it count into the same stats.
+ */
+public class CountingGraphics2D extends Graphics2D {
+    private final Graphics2D g;
+    final RenderStats stats;
+    RenderStats.Part part = RenderStats.Part.OTHER;
+
+    public CountingGraphics2D(Graphics2D delegate, RenderStats stats) {
+        this.g = delegate;
+        this.stats = stats;
+    }
+
+    private void drew() {
+        stats.drawCalls[part.ordinal()]++;
+    }
+
+    private void colored() {
+        stats.colorChanges[part.ordinal()]++;
+    }
+
+    // --- Counted: drawing ---
+    @Override public void draw(Shape s) { drew(); g.draw(s); }
+    @Override public void fill(Shape s) { drew(); g.fill(s); }
+    @Override public void drawLine(int x1, int y1, int x2, int y2) { drew(); g.drawLine(x1, y1, x2, y2); }
+    @Override public void drawRect(int x, int y, int w, int h) { drew(); g.drawRect(x, y, w, h); }
+    @Override public void fillRect(int x, int y, int w, int h) { drew(); g.fillRect(x, y, w, h); }
+    @Override public void clearRect(int x, int y, int w, int h) { drew(); g.clearRect(x, y, w, h); }
+    @Override public void drawRoundRect(int x, int y, int w, int h, int aw, int ah) { drew(); g.drawRoundRect(x, y, w, h, aw, ah); }
+    @Override public void fillRoundRect(int x, int y, int w, int h, int aw, int ah) { drew(); g.fillRoundRect(x, y, w, h, aw, ah); }
+    @Override public void drawOval(int x, int y, int w, int h) { drew(); g.drawOval(x, y, w, h); }
+    @Override public void fillOval(int x, int y, int w, int h) { drew(); g.fillOval(x, y, w, h); }
+    @Override public void drawArc(int x, int y, int w, int h, int start, int arc) { drew(); g.drawArc(x, y, w, h, start, arc); }
+    @Override public void fillArc(int x, int y, int w, int h, int start, int arc) { drew(); g.fillArc(x, y, w, h, start, arc); }
+    @Override public void drawPolyline(int[] xs, int[] ys, int n) { drew(); g.drawPolyline(xs, ys, n); }
+    @Override public void drawPolygon(int[] xs, int[] ys, int n) { drew(); g.drawPolygon(xs, ys, n); }
+    @Override public void fillPolygon(int[] xs, int[] ys, int n) { drew(); g.fillPolygon(xs, ys, n); }
+    @Override public void drawString(String s, int x, int y) { drew(); g.drawString(s, x, y); }
+    @Override public void drawString(String s, float x, float y) { drew(); g.drawString(s, x, y); }
+    @Override public void drawString(AttributedCharacterIterator it, int x, int y) { drew(); g.drawString(it, x, y); }
+    @Override public void drawString(AttributedCharacterIterator it, float x, float y) { drew(); g.drawString(it, x, y); }
+    @Override public void drawGlyphVector(GlyphVector gv, float x, float y) { drew(); g.drawGlyphVector(gv, x, y); }
+    @Override public void drawRenderedImage(RenderedImage img, AffineTransform xform) { drew(); g.drawRenderedImage(img, xform); }
+    @Override public void drawRenderableImage(RenderableImage img, AffineTransform xform) { drew(); g.drawRenderableImage(img, xform); }
+    @Override public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y) { drew(); g.drawImage(img, op, x, y); }
+    @Override public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs) { drew(); return g.drawImage(img, xform, obs); }
+    @Override public boolean drawImage(Image img, int x, int y, ImageObserver obs) { drew(); return g.drawImage(img, x, y, obs); }
+    @Override public boolean drawImage(Image img, int x, int y, int w, int h, ImageObserver obs) { drew(); return g.drawImage(img, x, y, w, h, obs); }
+    @Override public boolean drawImage(Image img, int x, int y, Color bg, ImageObserver obs) { drew(); return g.drawImage(img, x, y, bg, obs); }
+    @Override public boolean drawImage(Image img, int x, int y, int w, int h, Color bg, ImageObserver obs) { drew(); return g.drawImage(img, x, y, w, h, bg, obs); }
+    @Override public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2, ImageObserver obs) {
+        drew();
+        return g.drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, obs);
+    }
+    @Override public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2, Color bg, ImageObserver obs) {
+        drew();
+        return g.drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, bg, obs);
+    }
+    @Override public void copyArea(int x, int y, int w, int h, int dx, int dy) { drew(); g.copyArea(x, y, w, h, dx, dy); }
+
+    // --- Counted: color ---
+    @Override public void setColor(Color c) { colored(); g.setColor(c); }
+    @Override public void setPaint(Paint paint) { colored(); g.setPaint(paint); }
+
+    // --- Forwarded ---
+    @Override public Graphics create() { return new CountingGraphics2D((Graphics2D) g.create(), stats); }
+    @Override public void dispose() { g.dispose(); }
+    @Override public Color getColor() { return g.getColor(); }
+    @Override public Paint getPaint() { return g.getPaint(); }
+    @Override public void setPaintMode() { g.setPaintMode(); }
+    @Override public void setXORMode(Color c) { g.setXORMode(c); }
+    @Override public Font getFont() { return g.getFont(); }
+    @Override public void setFont(Font font) { g.setFont(font); }
+    @Override public FontMetrics getFontMetrics(Font f) { return g.getFontMetrics(f); }
+    @Override public Rectangle getClipBounds() { return g.getClipBounds(); }
+    @Override public void clipRect(int x, int y, int w, int h) { g.clipRect(x, y, w, h); }
+    @Override public void setClip(int x, int y, int w, int h) { g.setClip(x, y, w, h); }
+    @Override public Shape getClip() { return g.getClip(); }
+    @Override public void setClip(Shape clip) { g.setClip(clip); }
+    @Override public void clip(Shape s) { g.clip(s); }
+    @Override public boolean hit(Rectangle rect, Shape s, boolean onStroke) { return g.hit(rect, s, onStroke); }
+    @Override public GraphicsConfiguration getDeviceConfiguration() { return g.getDeviceConfiguration(); }
+    @Override public void setComposite(Composite comp) { g.setComposite(comp); }
+    @Override public Composite getComposite() { return g.getComposite(); }
+    @Override public void setStroke(Stroke s) { g.setStroke(s); }
+    @Override public Stroke getStroke() { return g.getStroke(); }
+    @Override public void setRenderingHint(RenderingHints.Key key, Object value) { g.setRenderingHint(key, value); }
+    @Override public Object getRenderingHint(RenderingHints.Key key) { return g.getRenderingHint(key); }
+    @Override public void setRenderingHints(Map<?, ?> hints) { g.setRenderingHints(hints); }
+    @Override public void addRenderingHints(Map<?, ?> hints) { g.addRenderingHints(hints); }
+    @Override public RenderingHints getRenderingHints() { return g.getRenderingHints(); }
+    @Override public void translate(int x, int y) { g.translate(x, y); }
+    @Override public void translate(double tx, double ty) { g.translate(tx, ty); }
+    @Override public void rotate(double theta) { g.rotate(theta); }
+    @Override public void rotate(double theta, double x, double y) { g.rotate(theta, x, y); }
+    @Override public void scale(double sx, double sy) { g.scale(sx, sy); }
+    @Override public void shear(double shx, double shy) { g.shear(shx, shy); }
+    @Override public void transform(AffineTransform tx) { g.transform(tx); }
+    @Override public void setTransform(AffineTransform tx) { g.setTransform(tx); }
+    @Override public AffineTransform getTransform() { return g.getTransform(); }
+    @Override public void setBackground(Color color) { g.setBackground(color); }
+    @Override public Color getBackground() { return g.getBackground(); }
+    @Override public FontRenderContext getFontRenderContext() { return g.getFontRenderContext(); }
+}
@@ -0,0 +1,465 @@
+package rooster;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records the primitives of many drawings (e.g. roosters) and replays them batched by
+ * color and stroke, so a frame needs one setColor per distinct color and layer instead of
+ * several per rooster.
+ *
+ * Each item is started with {@link #beginItem(Rectangle)} and drawn through {@link #recorder}.
+ * Within an item, the layer goes up whenever the color or stroke changes. Items go into
+ * groups: an item whose bounds intersect those of an item already in the current group
+ * starts a new one. Replay goes group by group, then layer by layer, and within a layer it
+ * draws one merged shape per (stroke, color, fill/draw). So an item's own primitives keep
+ * their order, overlapping items are painted in recording order, and only items that do
+ * not touch each other are batched together.
+ *
+ * Fills keep their fill rule: polygons fill even-odd like {@link Graphics2D#fillPolygon}, and
+ * shapes with their own winding rule. Simple polygons fill the same under either rule, so
+ * they join the nonzero buckets; like ovals, rectangles and pies they are turned to one
+ * orientation there, so overlapping fills of a bucket add up instead of cancelling. Only
+ * self-intersecting polygons and even-odd shapes go into even-odd buckets.
+ *
+ * The buffers are kept between frames; {@link #reset()} only rewinds them.
+ * Not thread-safe.
+ */
+public class DisplayList {
+    // opcodes; the coordinates of each command are stored in coords from its offset
+    static final int FILL_OVAL = 0, DRAW_OVAL = 1, FILL_RECT = 2, DRAW_RECT = 3, FILL_ARC = 4, DRAW_ARC = 5,
+            DRAW_LINE = 6, FILL_POLYGON = 7, DRAW_POLYGON = 8, DRAW_POLYLINE = 9, FILL_SHAPE = 10, DRAW_SHAPE = 11;
+
+    private static final int MAX_LAYER = (1 << 23) - 1, MAX_STROKES = 127;
+
+    private int count;
+    private int[] ops = new int[256], buckets = new int[256], offsets = new int[256];
+    private int coordCount;
+    private int[] coords = new int[1024];
+    private final List<Shape> shapes = new ArrayList<>();   // for FILL_SHAPE / DRAW_SHAPE
+    private final List<Stroke> strokes = new ArrayList<>(); // stroke ids used in the bucket keys
+
+    // bucket key: layer << 40 | style << 33 | fill << 32 | ARGB color, where style is the
+    // stroke id of an outline and the winding rule of a fill
+    private int bucketCount;
+    private long[] bucketKeys = new long[64];
+    private Color[] bucketColors = new Color[64]; // as recorded, so replay allocates none
+    // key -> bucket id + 1 (0 = free slot), linear probing
+    private long[] tableKeys = new long[128];
+    private int[] tableIds = new int[128];
+
+    // groups: the items of the current one, by grid cell, to find overlaps
+    private static final int CELL_SHIFT = 7;      // 128 pixel cells
+    private long group = 1;                       // stamp of the current group, never reused
+    private int groupCount = 1;
+    private int[] groupStarts = new int[16];      // first bucket of each group
+    private int itemCount;
+    private int[] itemRects = new int[64];        // x, y, width, height per item of the group
+    private int nodeCount;
+    private int[] nodeItems = new int[64], nodeNext = new int[64]; // item lists of the cells
+    private int cellsUsed;
+    // cell -> first node, linear probing; slots stamped with an older group are free
+    private long[] cellKeys = new long[256], cellStamps = new long[256];
+    private int[] cellHeads = new int[256];
+
+    // state of the current item
+    private int layer;
+    private long layerColor = -1;
+    private int layerStroke = -1;
+
+    // replay scratch
+    private final Path2D.Float path = new Path2D.Float(Path2D.WIND_NON_ZERO);
+    private final Path2D.Float evenOddPath = new Path2D.Float(Path2D.WIND_EVEN_ODD);
+    private long[] order = new long[64];
+    private int[] rank = new int[64], byRank = new int[64], start = new int[65], next = new int[64];
+    private int[] sorted = new int[256];
+    private final Ellipse2D.Float ellipse = new Ellipse2D.Float();
+    private final Rectangle rect = new Rectangle();
+    private final Arc2D.Float arc = new Arc2D.Float();
+
+    /** Forgets all recorded commands, keeping the buffers. */
+    public void reset() {
+        count = 0;
+        coordCount = 0;
+        shapes.clear();
+        strokes.clear();
+        Arrays.fill(bucketColors, 0, bucketCount, null);
+        if (bucketCount > 0) Arrays.fill(tableIds, 0);
+        bucketCount = 0;
+        groupCount = 0;
+        startGroup();
+        layer = 0;
+        layerColor = -1;
+        layerStroke = -1;
+    }
+
+    /**
+     * Starts a new item that paints inside bounds: its first primitive goes into layer 0
+     * again, and into a new group if it overlaps an item of the current one.
+     */
+    public void beginItem(Rectangle bounds) {
+        layer = 0;
+        layerColor = -1;
+        layerStroke = -1;
+        if (bounds.isEmpty()) return;
+        if (overlapsGroup(bounds)) startGroup();
+        addToGroup(bounds);
+    }
+
+    /**
+     * Graphics that records into this list. It reports the target's transform and clip
+     * (so level-of-detail decisions match) but never draws on the target.
+     */
+    public Graphics2D recorder(Graphics2D target) {
+        return new RecordingGraphics2D(this, target);
+    }
+
+    public int commandCount() { return count; }
+    public int bucketCount() { return bucketCount; }
+
+    // --- Recording (called by RecordingGraphics2D) ---
+
+    // Appends a command with n coordinates and returns the offset to write them at
+    int add(int op, Color color, Stroke stroke, int n) {
+        return add(op, color, stroke, Path2D.WIND_NON_ZERO, n);
+    }
+
+    private int add(int op, Color color, Stroke stroke, int windingRule, int n) {
+        int strokeId = 0;
+        if (!isFill(op)) {
+            strokeId = strokes.indexOf(stroke);
+            if (strokeId < 0) {
+                if (strokes.size() == MAX_STROKES) throw new IllegalStateException("too many strokes in one display list");
+                strokeId = strokes.size();
+                strokes.add(stroke);
+            }
+        }
+        long argb = color.getRGB() & 0xFFFFFFFFL;
+        if (layerColor != -1 && (argb != layerColor || (!isFill(op) && layerStroke != -1 && strokeId != layerStroke))) {
+            layer = Math.min(MAX_LAYER, layer + 1);
+        }
+        layerColor = argb;
+        if (!isFill(op)) layerStroke = strokeId;
+
+        long style = isFill(op) ? windingRule : strokeId;
+        long key = (long) layer << 40 | style << 33 | (isFill(op) ? 1L << 32 : 0) | argb;
+        int bucket = bucketFor(key, color);
+
+        ensureRoom(n);
+        ops[count] = op;
+        buckets[count] = bucket;
+        offsets[count] = coordCount;
+        count++;
+        coordCount += n;
+        return coordCount - n;
+    }
+
+    void set(int offset, int... values) {
+        System.arraycopy(values, 0, coords, offset, values.length);
+    }
+
+    // --- Groups ---
+
+    private void startGroup() {
+        if (groupCount == groupStarts.length) groupStarts = Arrays.copyOf(groupStarts, groupCount * 2);
+        groupStarts[groupCount++] = bucketCount;
+        group++;
+        itemCount = 0;
+        nodeCount = 0;
+        cellsUsed = 0;
+    }
+
+    private boolean overlapsGroup(Rectangle b) {
+        for (int cx = b.x >> CELL_SHIFT; cx <= (b.x + b.width - 1) >> CELL_SHIFT; cx++) {
+            for (int cy = b.y >> CELL_SHIFT; cy <= (b.y + b.height - 1) >> CELL_SHIFT; cy++) {
+                int c = cellSlot(cellKey(cx, cy));
+                if (cellStamps[c] != group) continue;
+                for (int node = cellHeads[c]; node != -1; node = nodeNext[node]) {
+                    int o = 4 * nodeItems[node];
+                    if (b.x < itemRects[o] + itemRects[o + 2] && itemRects[o] < b.x + b.width
+                            && b.y < itemRects[o + 1] + itemRects[o + 3] && itemRects[o + 1] < b.y + b.height) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void addToGroup(Rectangle b) {
+        if (4 * itemCount + 4 > itemRects.length) itemRects = Arrays.copyOf(itemRects, itemRects.length * 2);
+        int o = 4 * itemCount;
+        itemRects[o] = b.x;
+        itemRects[o + 1] = b.y;
+        itemRects[o + 2] = b.width;
+        itemRects[o + 3] = b.height;
+        for (int cx = b.x >> CELL_SHIFT; cx <= (b.x + b.width - 1) >> CELL_SHIFT; cx++) {
+            for (int cy = b.y >> CELL_SHIFT; cy <= (b.y + b.height - 1) >> CELL_SHIFT; cy++) {
+                long key = cellKey(cx, cy);
+                int c = cellSlot(key);
+                if (cellStamps[c] != group) {
+                    cellStamps[c] = group;
+                    cellKeys[c] = key;
+                    cellHeads[c] = -1;
+                    cellsUsed++;
+                }
+                if (nodeCount == nodeItems.length) {
+                    nodeItems = Arrays.copyOf(nodeItems, nodeCount * 2);
+                    nodeNext = Arrays.copyOf(nodeNext, nodeCount * 2);
+                }
+                nodeItems[nodeCount] = itemCount;
+                nodeNext[nodeCount] = cellHeads[c];
+                cellHeads[c] = nodeCount++;
+                if (2 * cellsUsed > cellKeys.length) growCells();
+            }
+        }
+        itemCount++;
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return (long) cx << 32 | (cy & 0xFFFFFFFFL);
+    }
+
+    // Slot of this cell in the current group, or the free slot it would go into
+    private int cellSlot(long key) {
+        int mask = cellKeys.length - 1;
+        int i = slot(key, mask);
+        while (cellStamps[i] == group && cellKeys[i] != key) i = (i + 1) & mask;
+        return i;
+    }
+
+    private void growCells() {
+        long[] keys = cellKeys, stamps = cellStamps;
+        int[] heads = cellHeads;
+        cellKeys = new long[keys.length * 2];
+        cellStamps = new long[keys.length * 2];
+        cellHeads = new int[keys.length * 2];
+        for (int k = 0; k < keys.length; k++) {
+            if (stamps[k] != group) continue;
+            int c = cellSlot(keys[k]);
+            cellStamps[c] = group;
+            cellKeys[c] = keys[k];
+            cellHeads[c] = heads[k];
+        }
+    }
+
+    // --- Buckets ---
+
+    // Id of the bucket with this key in the current group, created on first use with the
+    // recorded color; table entries of earlier groups count as free
+    private int bucketFor(long key, Color color) {
+        int first = groupStarts[groupCount - 1];
+        int mask = tableKeys.length - 1;
+        int i = slot(key, mask);
+        while (tableIds[i] > first) {
+            if (tableKeys[i] == key) return tableIds[i] - 1;
+            i = (i + 1) & mask;
+        }
+        int bucket = bucketCount++;
+        if (bucket == bucketKeys.length) {
+            bucketKeys = Arrays.copyOf(bucketKeys, bucket * 2);
+            bucketColors = Arrays.copyOf(bucketColors, bucket * 2);
+        }
+        bucketKeys[bucket] = key;
+        bucketColors[bucket] = color;
+        tableKeys[i] = key;
+        tableIds[i] = bucket + 1;
+        if (2 * (bucketCount - first) > tableKeys.length) rehash(first);
+        return bucket;
+    }
+
+    private void rehash(int first) {
+        tableKeys = new long[tableKeys.length * 2];
+        tableIds = new int[tableKeys.length];
+        int mask = tableKeys.length - 1;
+        for (int b = first; b < bucketCount; b++) {
+            int i = slot(bucketKeys[b], mask);
+            while (tableIds[i] != 0) i = (i + 1) & mask;
+            tableKeys[i] = bucketKeys[b];
+            tableIds[i] = b + 1;
+        }
+    }
+
+    // Layers of one item differ in the high bits and colors in the low ones; mix both
+    private static int slot(long key, int mask) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    // Polygon or polyline; a filled one goes to the bucket and orientation described above
+    void addPoints(int op, int[] xs, int[] ys, int n, Color color, Stroke stroke) {
+        boolean evenOdd = op == FILL_POLYGON && selfIntersecting(xs, ys, n);
+        boolean reverse = op == FILL_POLYGON && !evenOdd && signedArea(xs, ys, n) < 0;
+        int offset = add(op, color, stroke, evenOdd ? Path2D.WIND_EVEN_ODD : Path2D.WIND_NON_ZERO, 1 + 2 * n);
+        coords[offset] = n;
+        for (int k = 0; k < n; k++) {
+            int from = reverse ? n - 1 - k : k;
+            coords[offset + 1 + k] = xs[from];
+            coords[offset + 1 + n + k] = ys[from];
+        }
+    }
+
+    // Twice the area, positive in the orientation of Ellipse2D and Rectangle paths
+    private static long signedArea(int[] xs, int[] ys, int n) {
+        long area = 0;
+        for (int k = 0, j = n - 1; k < n; j = k++) area += (long) xs[j] * ys[k] - (long) xs[k] * ys[j];
+        return area;
+    }
+
+    // Whether two non-adjacent edges touch; a triangle never self-intersects
+    private static boolean selfIntersecting(int[] xs, int[] ys, int n) {
+        for (int a = 0; a < n - 2 && n > 3; a++) {
+            for (int b = a + 2; b < n; b++) {
+                if (a == 0 && b == n - 1) continue; // closing edge is adjacent to the first
+                int a2 = a + 1, b2 = (b + 1) % n;
+                if (Line2D.linesIntersect(xs[a], ys[a], xs[a2], ys[a2], xs[b], ys[b], xs[b2], ys[b2])) return true;
+            }
+        }
+        return false;
+    }
+
+    void addShape(boolean fill, Shape shape, Color color, Stroke stroke) {
+        int winding = fill ? shape.getPathIterator(null).getWindingRule() : Path2D.WIND_NON_ZERO;
+        int offset = add(fill ? FILL_SHAPE : DRAW_SHAPE, color, stroke, winding, 1);
+        coords[offset] = shapes.size();
+        shapes.add(shape);
+    }
+
+    static boolean isFill(int op) {
+        return op == FILL_OVAL || op == FILL_RECT || op == FILL_ARC || op == FILL_POLYGON || op == FILL_SHAPE;
+    }
+
+    // --- Replay ---
+
+    /** Draws everything recorded since the last reset, bucket by bucket; g's color and stroke are restored. */
+    public void replay(Graphics2D g) {
+        if (count == 0) return;
+
+        // groups in order, their buckets in key order (layer first), then the commands of
+        // each bucket in recording order
+        if (order.length < bucketCount) {
+            order = new long[bucketKeys.length];
+            rank = new int[bucketKeys.length];
+            byRank = new int[bucketKeys.length];
+            start = new int[bucketKeys.length + 1];
+            next = new int[bucketKeys.length];
+        }
+        if (sorted.length < count) sorted = new int[ops.length];
+        System.arraycopy(bucketKeys, 0, order, 0, bucketCount);
+        for (int gi = 0; gi < groupCount; gi++) {
+            int from = groupStarts[gi], to = gi + 1 < groupCount ? groupStarts[gi + 1] : bucketCount;
+            Arrays.sort(order, from, to);
+            for (int b = from; b < to; b++) {
+                int r = Arrays.binarySearch(order, from, to, bucketKeys[b]); // keys are unique in a group
+                rank[b] = r;
+                byRank[r] = b;
+            }
+        }
+        Arrays.fill(start, 0, bucketCount + 1, 0);
+        for (int i = 0; i < count; i++) start[rank[buckets[i]] + 1]++;
+        for (int r = 0; r < bucketCount; r++) start[r + 1] += start[r];
+        System.arraycopy(start, 0, next, 0, bucketCount);
+        for (int i = 0; i < count; i++) sorted[next[rank[buckets[i]]]++] = i;
+
+        Color oldColor = g.getColor();
+        Stroke oldStroke = g.getStroke();
+        long current = -1;
+        Stroke currentStroke = oldStroke;
+        for (int r = 0; r < bucketCount; r++) {
+            long key = order[r];
+            boolean isFill = (key & (1L << 32)) != 0;
+            int style = (int) (key >>> 33) & MAX_STROKES;
+            Path2D.Float target = isFill && style == Path2D.WIND_EVEN_ODD ? evenOddPath : path;
+            target.reset();
+            for (int k = start[r]; k < start[r + 1]; k++) append(sorted[k], target);
+
+            long argb = key & 0xFFFFFFFFL;
+            if (argb != current) {
+                g.setColor(bucketColors[byRank[r]]);
+                current = argb;
+            }
+            if (isFill) {
+                g.fill(target);
+            } else {
+                Stroke stroke = strokes.get(style);
+                if (!stroke.equals(currentStroke)) {
+                    g.setStroke(stroke);
+                    currentStroke = stroke;
+                }
+                g.draw(path);
+            }
+        }
+        g.setColor(oldColor);
+        if (currentStroke != oldStroke) g.setStroke(oldStroke);
+    }
+
+    // Adds command i to a replay path; outlines match Graphics.drawXxx with the same stroke
+    private void append(int i, Path2D.Float path) {
+        int o = offsets[i];
+        int[] c = coords;
+        switch (ops[i]) {
+            case FILL_OVAL: case DRAW_OVAL:
+                ellipse.setFrame(c[o], c[o + 1], c[o + 2], c[o + 3]);
+                path.append(ellipse, false);
+                break;
+            case FILL_RECT: case DRAW_RECT:
+                rect.setBounds(c[o], c[o + 1], c[o + 2], c[o + 3]);
+                path.append(rect, false);
+                break;
+            case FILL_ARC:
+                // pies with a negative extent run the same way as ovals and rectangles
+                int from = c[o + 5] > 0 ? c[o + 4] + c[o + 5] : c[o + 4];
+                arc.setArc(c[o], c[o + 1], c[o + 2], c[o + 3], from, -Math.abs(c[o + 5]), Arc2D.PIE);
+                path.append(arc, false);
+                break;
+            case DRAW_ARC:
+                arc.setArc(c[o], c[o + 1], c[o + 2], c[o + 3], c[o + 4], c[o + 5], Arc2D.OPEN);
+                path.append(arc, false);
+                break;
+            case DRAW_LINE:
+                path.moveTo(c[o], c[o + 1]);
+                path.lineTo(c[o + 2], c[o + 3]);
+                break;
+            case FILL_POLYGON: case DRAW_POLYGON: case DRAW_POLYLINE:
+                int n = c[o];
+                if (n == 0) break;
+                path.moveTo(c[o + 1], c[o + 1 + n]);
+                for (int k = 1; k < n; k++) path.lineTo(c[o + 1 + k], c[o + 1 + n + k]);
+                if (ops[i] != DRAW_POLYLINE) path.closePath();
+                break;
+            default: // FILL_SHAPE, DRAW_SHAPE
+                path.append(shapes.get(c[o]), false);
+        }
+    }
+
+    // Path of a single command, for recorders with a transform of their own
+    Shape shapeOf(int op, int[] values) {
+        // written past the end as a scratch command, without counting it
+        ensureRoom(values.length);
+        System.arraycopy(values, 0, coords, coordCount, values.length);
+        ops[count] = op;
+        offsets[count] = coordCount;
+        // a transformed polygon keeps fillPolygon's even-odd rule as a shape
+        Path2D.Float shape = new Path2D.Float(op == FILL_POLYGON ? Path2D.WIND_EVEN_ODD : Path2D.WIND_NON_ZERO);
+        append(count, shape);
+        return shape;
+    }
+
+    private void ensureRoom(int n) {
+        if (count == ops.length) {
+            ops = Arrays.copyOf(ops, count * 2);
+            buckets = Arrays.copyOf(buckets, count * 2);
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        if (coordCount + n > coords.length) coords = Arrays.copyOf(coords, Math.max(coords.length * 2, coordCount + n));
+    }
+}
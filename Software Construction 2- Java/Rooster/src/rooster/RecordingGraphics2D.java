@@ -0,0 +1,216 @@
+package rooster;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.util.Map;
+
+/**
+ * Graphics2D that appends solid-color shapes to a {@link DisplayList} instead of drawing.
+ * Transform and clip queries answer for the target, so code deciding what to draw behaves as
+ * if it drew there; the target itself is never changed. Text, images and non-Color paints
+ * cannot be recorded and throw UnsupportedOperationException.
+ */
+class RecordingGraphics2D extends Graphics2D {
+    private final DisplayList list;
+    private final Graphics2D target;
+    private final AffineTransform local = new AffineTransform(); // applied on top of the target's transform
+    private Color color = Color.BLACK;
+    private Stroke stroke = new BasicStroke();
+    private Font font;
+    private Color background;
+    private Composite composite;
+    private final RenderingHints hints;
+
+    RecordingGraphics2D(DisplayList list, Graphics2D target) {
+        this.list = list;
+        this.target = target;
+        this.font = target.getFont();
+        this.background = target.getBackground();
+        this.composite = target.getComposite();
+        this.hints = (RenderingHints) target.getRenderingHints().clone();
+    }
+
+    // Records one primitive; with a local transform it is recorded as a transformed shape
+    private void record(int op, int... values) {
+        if (local.isIdentity()) {
+            list.set(list.add(op, color, stroke, values.length), values);
+        } else {
+            recordShape(DisplayList.isFill(op), list.shapeOf(op, values));
+        }
+    }
+
+    private void recordPoints(int op, int[] xs, int[] ys, int n) {
+        if (local.isIdentity()) {
+            list.addPoints(op, xs, ys, n, color, stroke);
+        } else {
+            int[] values = new int[1 + 2 * n];
+            values[0] = n;
+            System.arraycopy(xs, 0, values, 1, n);
+            System.arraycopy(ys, 0, values, 1 + n, n);
+            recordShape(DisplayList.isFill(op), list.shapeOf(op, values));
+        }
+    }
+
+    private void recordShape(boolean fill, Shape s) {
+        if (!fill && !local.isIdentity()) {
+            // outlines are stroked in local space, like Graphics2D.draw would
+            s = stroke.createStrokedShape(s);
+            fill = true;
+        }
+        list.addShape(fill, local.isIdentity() ? s : local.createTransformedShape(s), color, stroke);
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("only solid-color shapes can be recorded");
+    }
+
+    // --- Recorded ---
+    @Override public void draw(Shape s) { recordShape(false, s); }
+    @Override public void fill(Shape s) { recordShape(true, s); }
+    @Override public void drawLine(int x1, int y1, int x2, int y2) { record(DisplayList.DRAW_LINE, x1, y1, x2, y2); }
+    @Override public void drawRect(int x, int y, int w, int h) { record(DisplayList.DRAW_RECT, x, y, w, h); }
+    @Override public void fillRect(int x, int y, int w, int h) { record(DisplayList.FILL_RECT, x, y, w, h); }
+    @Override public void drawOval(int x, int y, int w, int h) { record(DisplayList.DRAW_OVAL, x, y, w, h); }
+    @Override public void fillOval(int x, int y, int w, int h) { record(DisplayList.FILL_OVAL, x, y, w, h); }
+    @Override public void drawArc(int x, int y, int w, int h, int start, int arc) { record(DisplayList.DRAW_ARC, x, y, w, h, start, arc); }
+    @Override public void fillArc(int x, int y, int w, int h, int start, int arc) { record(DisplayList.FILL_ARC, x, y, w, h, start, arc); }
+    @Override public void drawPolyline(int[] xs, int[] ys, int n) { recordPoints(DisplayList.DRAW_POLYLINE, xs, ys, n); }
+    @Override public void drawPolygon(int[] xs, int[] ys, int n) { recordPoints(DisplayList.DRAW_POLYGON, xs, ys, n); }
+    @Override public void fillPolygon(int[] xs, int[] ys, int n) { recordPoints(DisplayList.FILL_POLYGON, xs, ys, n); }
+    @Override public void drawRoundRect(int x, int y, int w, int h, int aw, int ah) {
+        recordShape(false, new RoundRectangle2D.Float(x, y, w, h, aw, ah));
+    }
+    @Override public void fillRoundRect(int x, int y, int w, int h, int aw, int ah) {
+        recordShape(true, new RoundRectangle2D.Float(x, y, w, h, aw, ah));
+    }
+
+    // --- State ---
+    @Override public void setColor(Color c) { if (c != null) color = c; }
+    @Override public Color getColor() { return color; }
+    @Override public void setPaint(Paint paint) {
+        if (paint == null) return;
+        if (!(paint instanceof Color)) throw unsupported();
+        color = (Color) paint;
+    }
+    @Override public Paint getPaint() { return color; }
+    @Override public void setStroke(Stroke s) { stroke = s; }
+    @Override public Stroke getStroke() { return stroke; }
+    @Override public Font getFont() { return font; }
+    @Override public void setFont(Font f) { if (f != null) font = f; }
+    @Override public FontMetrics getFontMetrics(Font f) { return target.getFontMetrics(f); }
+    @Override public void setBackground(Color c) { background = c; }
+    @Override public Color getBackground() { return background; }
+    @Override public void setComposite(Composite comp) { composite = comp; }
+    @Override public Composite getComposite() { return composite; }
+    @Override public void setPaintMode() { }
+    @Override public void setXORMode(Color c) { throw unsupported(); }
+    @Override public void setRenderingHint(RenderingHints.Key key, Object value) { hints.put(key, value); }
+    @Override public Object getRenderingHint(RenderingHints.Key key) { return hints.get(key); }
+    @Override public void setRenderingHints(Map<?, ?> h) { hints.clear(); hints.putAll(h); }
+    @Override public void addRenderingHints(Map<?, ?> h) { hints.putAll(h); }
+    @Override public RenderingHints getRenderingHints() { return (RenderingHints) hints.clone(); }
+    @Override public GraphicsConfiguration getDeviceConfiguration() { return target.getDeviceConfiguration(); }
+    @Override public FontRenderContext getFontRenderContext() { return target.getFontRenderContext(); }
+
+    // --- Transform and clip, as seen from the target ---
+    @Override public void translate(int x, int y) { local.translate(x, y); }
+    @Override public void translate(double tx, double ty) { local.translate(tx, ty); }
+    @Override public void rotate(double theta) { local.rotate(theta); }
+    @Override public void rotate(double theta, double x, double y) { local.rotate(theta, x, y); }
+    @Override public void scale(double sx, double sy) { local.scale(sx, sy); }
+    @Override public void shear(double shx, double shy) { local.shear(shx, shy); }
+    @Override public void transform(AffineTransform tx) { local.concatenate(tx); }
+    @Override public AffineTransform getTransform() {
+        AffineTransform t = target.getTransform();
+        t.concatenate(local);
+        return t;
+    }
+    @Override public void setTransform(AffineTransform tx) {
+        try {
+            AffineTransform t = target.getTransform().createInverse();
+            t.concatenate(tx);
+            local.setTransform(t);
+        } catch (NoninvertibleTransformException e) {
+            throw new IllegalStateException("target transform is not invertible", e);
+        }
+    }
+    @Override public Rectangle getClipBounds() {
+        Shape clip = getClip();
+        return clip == null ? null : clip.getBounds();
+    }
+    @Override public Shape getClip() {
+        Shape clip = target.getClip();
+        if (clip == null || local.isIdentity()) return clip;
+        try {
+            return local.createInverse().createTransformedShape(clip);
+        } catch (NoninvertibleTransformException e) {
+            return null;
+        }
+    }
+    // Clipping is left to the target when the list is replayed
+    @Override public void clipRect(int x, int y, int w, int h) { }
+    @Override public void setClip(int x, int y, int w, int h) { }
+    @Override public void setClip(Shape clip) { }
+    @Override public void clip(Shape s) { }
+    @Override public boolean hit(Rectangle rect, Shape s, boolean onStroke) { return target.hit(rect, s, onStroke); }
+
+    @Override public Graphics create() {
+        RecordingGraphics2D copy = new RecordingGraphics2D(list, target);
+        copy.local.setTransform(local);
+        copy.color = color;
+        copy.stroke = stroke;
+        copy.font = font;
+        copy.background = background;
+        copy.composite = composite;
+        copy.hints.clear();
+        copy.hints.putAll(hints);
+        return copy;
+    }
+    @Override public void dispose() { }
+
+    // --- Not recordable ---
+    @Override public void clearRect(int x, int y, int w, int h) { throw unsupported(); }
+    @Override public void copyArea(int x, int y, int w, int h, int dx, int dy) { throw unsupported(); }
+    @Override public void drawString(String s, int x, int y) { throw unsupported(); }
+    @Override public void drawString(String s, float x, float y) { throw unsupported(); }
+    @Override public void drawString(AttributedCharacterIterator it, int x, int y) { throw unsupported(); }
+    @Override public void drawString(AttributedCharacterIterator it, float x, float y) { throw unsupported(); }
+    @Override public void drawGlyphVector(GlyphVector gv, float x, float y) { throw unsupported(); }
+    @Override public void drawRenderedImage(RenderedImage img, AffineTransform xform) { throw unsupported(); }
+    @Override public void drawRenderableImage(RenderableImage img, AffineTransform xform) { throw unsupported(); }
+    @Override public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y) { throw unsupported(); }
+    @Override public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs) { throw unsupported(); }
+    @Override public boolean drawImage(Image img, int x, int y, ImageObserver obs) { throw unsupported(); }
+    @Override public boolean drawImage(Image img, int x, int y, int w, int h, ImageObserver obs) { throw unsupported(); }
+    @Override public boolean drawImage(Image img, int x, int y, Color bg, ImageObserver obs) { throw unsupported(); }
+    @Override public boolean drawImage(Image img, int x, int y, int w, int h, Color bg, ImageObserver obs) { throw unsupported(); }
+    @Override public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2, ImageObserver obs) {
+        throw unsupported();
+    }
+    @Override public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2, Color bg, ImageObserver obs) {
+        throw unsupported();
+    }
+}
@@ -0,0 +1,66 @@
+package rooster;
+
+import java.awt.Graphics;
+import java.util.Arrays;
+
+/**
+ * Rendering counters collected through a {@link CountingGraphics2D}: draw calls, color
+ * changes and time, split by the body part being drawn. {@link Rooster#drawAt} marks each
+ * part with begin/end; both return immediately unless the Graphics is a counting one, so
+ * normal drawing pays one instanceof check per part.
+ * Not thread-safe: use one instance per rendering thread.
+ */
+public class RenderStats {
+    /** What was being drawn; the first six are the BodyPart subclasses Rooster draws. */
+    public enum Part {
+        BODY("Body"), TAIL("TailFeathers"), WING("Wing"), LEFT_LEG("LeftLeg"), RIGHT_LEG("RightLeg"), HEAD("Head"),
+        LOD("simplified"), OTHER("other");
+
+        public final String label;
+
+        Part(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final int PARTS = Part.values().length;
+
+    final long[] drawCalls = new long[PARTS];
+    final long[] colorChanges = new long[PARTS];
+    final long[] nanos = new long[PARTS];
+
+    public long drawCalls(Part p) { return drawCalls[p.ordinal()]; }
+    public long colorChanges(Part p) { return colorChanges[p.ordinal()]; }
+    public long nanos(Part p) { return nanos[p.ordinal()]; }
+
+    public long totalDrawCalls() { return sum(drawCalls); }
+    public long totalColorChanges() { return sum(colorChanges); }
+
+    public void reset() {
+        Arrays.fill(drawCalls, 0);
+        Arrays.fill(colorChanges, 0);
+        Arrays.fill(nanos, 0);
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long v : values) total += v;
+        return total;
+    }
+
+    // --- Hooks for Rooster.drawAt ---
+
+    /** Starts attributing g's calls to the part; returns the start time, 0 when not counting. */
+    static long begin(Graphics g, Part part) {
+        if (!(g instanceof CountingGraphics2D)) return 0;
+        ((CountingGraphics2D) g).part = part;
+        return System.nanoTime();
+    }
+
+    static void end(Graphics g, long start) {
+        if (start == 0) return;
+        CountingGraphics2D counting = (CountingGraphics2D) g;
+        counting.stats.nanos[counting.part.ordinal()] += System.nanoTime() - start;
+        counting.part = Part.OTHER;
+    }
+}
@@ -1,8 +1,11 @@
 package rooster;
 
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Color;
 import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.SplittableRandom;
 
 // Import body constants if BODY_WIDTH and BODY_HEIGHT are public static
 // import static rooster.Body.BODY_WIDTH;
@@ -11,24 +14,34 @@ import java.awt.Point;
 
 
 public class Rooster extends Bird implements LocatedRectangle {
-    private Point position = new Point(0, 0); // Top-left anchor
-    private Color bodyColor;
-    private Color wingColor;
-    private Color tailColor;
-    private boolean hasHat; // example accessory
-    private double size;    // e.g., 1.0 = normal, 0.8 = small, 1.2 = large
-    private final Head head;    // composite
-    private final Body body;    // composite
-    private final Wing wing;    // composite
-    private final TailFeathers tail; // composite
-    private final LeftLeg leftLeg;   // composite
-    private final RightLeg rightLeg; // composite
+    // A rooster is a view onto one index of a RoosterStore
+    private final RoosterStore store;
+    private final int index;
+    private final Point position = new Point(0, 0); // Top-left anchor, refreshed by address()
+
+    // Parts only hold constant geometry, so all roosters share one instance of each (flyweights)
+    private static final Head head = new Head();                 // composite
+    private static final Body body = new Body();                 // composite
+    private static final Wing wing = new Wing();                 // composite
+    private static final TailFeathers tail = new TailFeathers(); // composite
+    private static final LeftLeg leftLeg = new LeftLeg();        // composite
+    private static final RightLeg rightLeg = new RightLeg();     // composite
+    private static final Color LEG_COLOR = new Color(255, 204, 102);
     
-    public void setBodyColor(Color c) { this.bodyColor = c; }
-    public void setWingColor(Color c) { this.wingColor = c; }
-    public void setTailColor(Color c) { this.tailColor = c; }
-    public void setHasHat(boolean h) { this.hasHat = h; }
-    public void setSize(double s) { this.size = s; }
+    // Setters bump the store's version, so cached renderings notice the change
+    public void setBodyColor(Color c) { store.setBodyColor(index, c); store.touch(); }
+    public void setWingColor(Color c) { store.setWingColor(index, c); store.touch(); }
+    public void setTailColor(Color c) { store.setTailColor(index, c); store.touch(); }
+    public void setHasHat(boolean h) { store.setHasHat(index, h); store.touch(); }
+    public void setSize(double s) { store.setSize(index, s); store.touch(); }
+
+    public Color getBodyColor() { return store.bodyColor(index); }
+    public Color getWingColor() { return store.wingColor(index); }
+    public Color getTailColor() { return store.tailColor(index); }
+    public int getBodyRGB() { return store.bodyRGB(index); }
+    public int getWingRGB() { return store.wingRGB(index); }
+    public int getTailRGB() { return store.tailRGB(index); }
+    public boolean getHasHat() { return store.hasHat(index); }
 
 
     // Tune these to match your part classes:
@@ -41,138 +54,259 @@ public class Rooster extends Bird implements LocatedRectangle {
     public static final int LEG_HEIGHT = 35;
     public static final int FEATHER_WIDTH = 40; // adjust to fit your arcs
 
+    // Standalone rooster backed by its own single-entry store
     public Rooster() {
+        this(new RoosterStore(1), -1);
+    }
+
+    Rooster(RoosterStore store, int index) {
         super("Rooster");
-        this.head = new Head();
-        this.body = new Body();
-        this.wing = new Wing();
-        this.tail = new TailFeathers();
-        this.leftLeg = new LeftLeg();
-        this.rightLeg = new RightLeg();
+        this.store = store;
+        this.index = index < 0 ? store.add() : index;
+    }
+
+    public int getIndex() {
+        return index;
     }
     
     public void setPosition(int x, int y) {
-        this.position = new Point(x, y);
+        store.setPosition(index, x, y);
+        store.touch();
     }
+
+    // Animation pose: wingFrame 0..3 lifts the wing, walkFrame -1..1 swings the legs
+    public void setPose(int wingFrame, int walkFrame) {
+        store.setPose(index, Math.max(0, Math.min(3, wingFrame)), Math.max(-1, Math.min(1, walkFrame)));
+        store.touch();
+    }
+
+    public int getWingFrame() { return store.wingFrame(index); }
+    public int getWalkFrame() { return store.walkFrame(index); }
    
 
+    // Random comb, position (assuming an 800x600 panel), size, colors and hat. This knows
+    // nothing about other roosters; Scene.randomizeRoosters() uses the real panel size and
+    // keeps roosters apart.
     public void setRandomAttributes() {
-        java.util.Random rand = new java.util.Random();
+        setRandomAttributes(new SplittableRandom(), 800, 600);
+    }
 
-        // Randomize comb presence
-        setShowComb(rand.nextBoolean());
+    public void setRandomAttributes(SplittableRandom rand, int panelWidth, int panelHeight) {
+        store.randomize(index, rand, panelWidth, panelHeight);
+        store.touch();
+    }
 
-        // Randomize position (assume typical panel size 800x600 for now)
-        int panelWidth = 800;
-        int panelHeight = 600;
-        int x = rand.nextInt(panelWidth - this.width());
-        int y = rand.nextInt(panelHeight - this.height());
-        setPosition(x, y);
+    // --- Level of detail ---
 
-        // Randomize size (between 0.8 and 1.6, for example)
-        double minSize = 0.8;
-        double maxSize = 1.6;
-        double randomSize = minSize + (maxSize - minSize) * rand.nextDouble();
-        setSize(randomSize);
+    /** Rendering tiers, chosen from the body width in device pixels. */
+    public enum Detail { FULL, SILHOUETTE, BLOB }
 
-        // Randomize colors from a palette
-        Color[] colorPalette = {Color.RED, Color.YELLOW, Color.ORANGE, Color.BLUE, Color.GREEN, Color.MAGENTA, Color.PINK};
-        setBodyColor(colorPalette[rand.nextInt(colorPalette.length)]);
-        setWingColor(colorPalette[rand.nextInt(colorPalette.length)]);
-        setTailColor(colorPalette[rand.nextInt(colorPalette.length)]);
+    // Body width in device pixels from which a tier is used; below silhouettePixels a blob
+    private static volatile double fullDetailPixels = 40, silhouettePixels = 10;
 
-        // Randomize accessory (e.g., "hat" if your class supports it)
-        setHasHat(rand.nextBoolean());
+    public static void setDetailThresholds(double fullPixels, double silhouettePx) {
+        if (silhouettePx < 0 || fullPixels < silhouettePx) {
+            throw new IllegalArgumentException("need 0 <= silhouette threshold <= full detail threshold");
+        }
+        fullDetailPixels = fullPixels;
+        silhouettePixels = silhouettePx;
     }
 
+    public static double getFullDetailPixels() { return fullDetailPixels; }
+    public static double getSilhouettePixels() { return silhouettePixels; }
 
+    /** Device pixels per user-space unit of g (1 for plain Graphics); read once per frame. */
+    public static double deviceScale(Graphics g) {
+        if (!(g instanceof Graphics2D)) return 1;
+        return Math.sqrt(Math.abs(((Graphics2D) g).getTransform().getDeterminant()));
+    }
+
+    /** Tier for a rooster of the given size drawn through g (its transform's scale included). */
+    public static Detail detailFor(double size, Graphics g) {
+        return detailFor(size, deviceScale(g));
+    }
 
+    /** Tier for a rooster of the given size at a {@link #deviceScale(Graphics) device scale}. */
+    public static Detail detailFor(double size, double deviceScale) {
+        double pixels = BODY_WIDTH * size * deviceScale;
+        if (pixels >= fullDetailPixels) return Detail.FULL;
+        return pixels >= silhouettePixels ? Detail.SILHOUETTE : Detail.BLOB;
+    }
 
     @Override
     public void drawAt(Graphics g, int left, int bottom) {
-        // Draw body with color/size
+        drawAt(store, index, g, left, bottom, deviceScale(g));
+    }
+
+    /**
+     * Draws rooster {@code index} of the store without going through a view.
+     * {@code deviceScale} is {@link #deviceScale(Graphics)} of g, computed once by the caller.
+     */
+    public static void drawAt(RoosterStore store, int index, Graphics g, int left, int bottom, double deviceScale) {
+        double size = store.size(index);
+        Color bodyColor = store.bodyColor(index);
+        Detail detail = detailFor(size, deviceScale);
+        if (detail != Detail.FULL) {
+            long start = RenderStats.begin(g, RenderStats.Part.LOD);
+            if (detail == Detail.SILHOUETTE) drawSilhouette(store, index, g, left, bottom, size, bodyColor);
+            else drawBlob(g, left, bottom, size, bodyColor, deviceScale);
+            RenderStats.end(g, start);
+            return;
+        }
+        int wingFrame = store.wingFrame(index);
+        int walkFrame = store.walkFrame(index);
+
+        // Draw body with color/size (start/end feed RenderStats when g is counting)
+        long start = RenderStats.begin(g, RenderStats.Part.BODY);
         body.drawAt(g, left, bottom, bodyColor, size);
+        RenderStats.end(g, start);
 
         // TailFeathers: pass color/size
+        start = RenderStats.begin(g, RenderStats.Part.TAIL);
         tail.drawAt(g, 
         	    left - (int)(FEATHER_WIDTH * size / 2), 
         	    bottom + (int)(BODY_HEIGHT * size / 3), 
-        	    tailColor, 
+        	    store.tailColor(index), 
         	    size
         	);
+        RenderStats.end(g, start);
 
 
         // Wing: pass color/size
+        start = RenderStats.begin(g, RenderStats.Part.WING);
         wing.drawAt(
         	    g,
         	    left + (int)(BODY_WIDTH * size / 2 - WING_WIDTH * size / 2),
-        	    bottom + (int)(BODY_HEIGHT * size / 2 - WING_HEIGHT * size / 2),
-        	    wingColor,
+        	    bottom + (int)(BODY_HEIGHT * size / 2 - WING_HEIGHT * size / 2) - (int)(wingFrame * 2 * size),
+        	    store.wingColor(index),
         	    size
         	);
-        Color legColor = new Color(255, 204, 102); // or define as property
+        RenderStats.end(g, start);
+        Color legColor = LEG_COLOR;
 
         // Legs (size optional if you want scalable legs)
+        start = RenderStats.begin(g, RenderStats.Part.LEFT_LEG);
         leftLeg.drawAt(
         	    g,
-        	    left + (int)(BODY_WIDTH * size / 3 - LeftLeg.LEG_WIDTH * size / 2),
+        	    left + (int)(BODY_WIDTH * size / 3 - LeftLeg.LEG_WIDTH * size / 2) + (int)(walkFrame * 4 * size),
         	    bottom + (int)(BODY_HEIGHT * size - 1),
         	    legColor,
         	    size
         	);
+        RenderStats.end(g, start);
+        start = RenderStats.begin(g, RenderStats.Part.RIGHT_LEG);
         rightLeg.drawAt(
         	    g,
-        	    left + (int)(2 * BODY_WIDTH * size / 3 - RightLeg.LEG_WIDTH * size / 2),
+        	    left + (int)(2 * BODY_WIDTH * size / 3 - RightLeg.LEG_WIDTH * size / 2) - (int)(walkFrame * 4 * size),
         	    bottom + (int)(BODY_HEIGHT * size - 1),
         	    legColor,
         	    size
         	);
+        RenderStats.end(g, start);
 
         // Head
+        start = RenderStats.begin(g, RenderStats.Part.HEAD);
         head.drawAt(
         	    g,
         	    left + (int)(BODY_WIDTH * size - Head.HEAD_WIDTH * size / 3),
         	    bottom - (int)(Head.HEAD_HEIGHT * size / 2),
         	    bodyColor,    // or a dedicated headColor property if you add it
         	    size,
-        	    showComb,
-        	    hasHat
+        	    store.showComb(index),
+        	    store.hasHat(index)
         	);
+        RenderStats.end(g, start);
     }
 
 
+    // Middle tier: body, head and wing as plain filled ovals, no outlines or small parts
+    private static void drawSilhouette(RoosterStore store, int index, Graphics g, int left, int bottom,
+                                       double size, Color bodyColor) {
+        g.setColor(bodyColor);
+        g.fillOval(left, bottom, (int)(BODY_WIDTH * size), (int)(BODY_HEIGHT * size));
+        g.fillOval(left + (int)(BODY_WIDTH * size - Head.HEAD_WIDTH * size / 3), bottom - (int)(Head.HEAD_HEIGHT * size / 2),
+                (int)(Head.HEAD_WIDTH * size), (int)(Head.HEAD_HEIGHT * size));
+        g.setColor(store.wingColor(index));
+        g.fillOval(left + (int)(BODY_WIDTH * size / 2 - WING_WIDTH * size / 2),
+                bottom + (int)(BODY_HEIGHT * size / 2 - WING_HEIGHT * size / 2) - (int)(store.wingFrame(index) * 2 * size),
+                (int)(WING_WIDTH * size), (int)(WING_HEIGHT * size));
+    }
+
+    // Lowest tier: one rectangle in the body color, at least a device pixel
+    private static void drawBlob(Graphics g, int left, int bottom, double size, Color bodyColor, double deviceScale) {
+        int minSide = deviceScale > 0 && deviceScale < 1 ? (int) Math.ceil(1 / deviceScale) : 1;
+        g.setColor(bodyColor);
+        g.fillRect(left, bottom, Math.max(minSide, (int)(BODY_WIDTH * size)), Math.max(minSide, (int)(BODY_HEIGHT * size)));
+    }
+
     // Optional overloaded drawAt with showComb (for randomization)
     public void drawAt(Graphics g, int left, int bottom, boolean showComb) {
-        this.showComb = showComb;
+        setShowComb(showComb);
         drawAt(g, left, bottom);
     }
 
     public boolean getShowComb() {
-        return this.showComb;
+        return store.showComb(index);
     }
 
-    private boolean showComb = true;
-
     public void setShowComb(boolean showComb) {
-        this.showComb = showComb;
+        store.setShowComb(index, showComb);
+        store.touch();
     }
 
     public static final int ROOSTER_WIDTH = (int)(BODY_WIDTH * 1.5); // adjust as needed!
     public static final int ROOSTER_HEIGHT = (int)(BODY_HEIGHT * 1.7);
 
+    // Area actually painted by drawAt, relative to the (left, bottom) anchor.
+    // Mirrors the offsets used in drawAt; the comb and hat are always included.
+    public static Rectangle extentFor(double size) {
+        int minX = -(int)(FEATHER_WIDTH * size / 2) - 1;
+        int headLeft = (int)(BODY_WIDTH * size - Head.HEAD_WIDTH * size / 3);
+        int headWidth = (int)(Head.HEAD_WIDTH * size);
+        int maxX = headLeft + Math.max(headWidth, headWidth - (int)(4 * size) + 10) + 1; // beak tip
+        int minY = -(int)(Head.HEAD_HEIGHT * size / 2) - (int)(10 * size) - 4 - 1;    // comb
+        int maxY = (int)(BODY_HEIGHT * size - 1) + (int)(LEG_HEIGHT * size) + 8 + 1;  // claws
+        return new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+    }
+
+    // Painted area in scene coordinates
+    public Rectangle getBounds() {
+        Rectangle r = extentFor(store.size(index));
+        r.translate(store.x(index), store.y(index));
+        return r;
+    }
+
+    public double getSize() {
+        return store.size(index);
+    }
+
     @Override
     public Point address() {
+        position.setLocation(store.x(index), store.y(index));
         return position;
     }
 
+    public static final int FOOTPRINT = 120; // width and height used for placement
+
     @Override
     public int width() {
-        return 120; // full bounding width
+        return FOOTPRINT; // full bounding width
     }
 
     @Override
     public int height() {
-        return 120; // full bounding height 
+        return FOOTPRINT; // full bounding height 
+    }
+
+    // Views are values: two views of the same store index are the same rooster
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Rooster && ((Rooster) o).store == store && ((Rooster) o).index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(store) + index;
     }
 
     @Override
@@ -0,0 +1,366 @@
+package rooster;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Data-oriented storage for many roosters: one primitive array per attribute
+ * instead of one object graph per rooster. Colors are packed ARGB ints, and the
+ * boolean/pose attributes and whether each color was set share one flag short. {@link Rooster} objects
+ * obtained from {@link #view(int)} read and write through to these arrays.
+ *
+ * The arrays are split into chunks of {@link #CHUNK} roosters that are copied on write:
+ * {@link #snapshot()} only copies the chunk table, and the first write to a chunk after
+ * a snapshot copies that chunk. Unchanged chunks stay shared with every snapshot.
+ */
+public class RoosterStore {
+    // flag bits
+    static final int COMB = 1, HAT = 2;
+    static final int WING_SHIFT = 2, WALK_SHIFT = 4; // 2 bits each
+    static final int BODY_SET = 1 << 6, WING_SET = 1 << 7, TAIL_SET = 1 << 8;
+    private static final int POSE = (3 << WING_SHIFT) | (3 << WALK_SHIFT);
+
+    /** Unit of work for bulk operations; callers split index ranges on multiples of this. */
+    public static final int CHUNK = 4096;
+    private static final int SHIFT = Integer.numberOfTrailingZeros(CHUNK), MASK = CHUNK - 1;
+
+    /** Heap bytes per rooster: x, y, size, body, wing, tail (4 each) and flags (2). */
+    static final int BYTES_PER_ROOSTER = 4 + 4 + 4 + 4 + 4 + 4 + 2;
+
+    // Palettes for random attributes, shared instead of rebuilt per rooster
+    private static final int[] RANDOM_PALETTE = rgb(Color.RED, Color.YELLOW, Color.ORANGE, Color.BLUE,
+            Color.GREEN, Color.MAGENTA, Color.PINK);
+    private static final int[] COLOR_PALETTE = rgb(Color.RED, Color.YELLOW, Color.ORANGE, Color.BLUE,
+            Color.GREEN, Color.MAGENTA);
+
+    // Colors handed out by views, so repeated getters do not allocate: a small direct-mapped
+    // cache keyed by ARGB. Races only cost an extra Color, which is immutable.
+    private static final Color[] COLORS = new Color[256];
+
+    // Attributes of up to CHUNK roosters; only the last chunk of a store may be shorter.
+    // A chunk may be written only by the store whose generation owns it.
+    private static final class Chunk {
+        final int[] x, y;
+        final float[] size;
+        final int[] body, wing, tail;
+        final short[] flags;
+        final int owner;
+
+        Chunk(int capacity, int owner) {
+            this(new int[capacity], new int[capacity], new float[capacity], new int[capacity],
+                 new int[capacity], new int[capacity], new short[capacity], owner);
+        }
+
+        Chunk(int[] x, int[] y, float[] size, int[] body, int[] wing, int[] tail, short[] flags, int owner) {
+            this.x = x; this.y = y;
+            this.size = size;
+            this.body = body; this.wing = wing; this.tail = tail;
+            this.flags = flags;
+            this.owner = owner;
+        }
+
+        int capacity() {
+            return x.length;
+        }
+
+        Chunk copy(int capacity, int newOwner) {
+            return new Chunk(Arrays.copyOf(x, capacity), Arrays.copyOf(y, capacity), Arrays.copyOf(size, capacity),
+                    Arrays.copyOf(body, capacity), Arrays.copyOf(wing, capacity), Arrays.copyOf(tail, capacity),
+                    Arrays.copyOf(flags, capacity), newOwner);
+        }
+    }
+
+    /** Frozen state of a store; shares the chunks that were not changed since. */
+    public static final class Snapshot {
+        private final int count;
+        private final Chunk[] chunks;
+
+        private Snapshot(int count, Chunk[] chunks) {
+            this.count = count;
+            this.chunks = chunks;
+        }
+
+        public int size() {
+            return count;
+        }
+    }
+
+    // Each store gets its own range of generations, so chunks of a snapshot restored into
+    // another store are never mistaken for that store's own
+    private static int nextGeneration;
+
+    private int count;
+    private Chunk[] chunks = new Chunk[0]; // table length = number of allocated chunks
+    private int generation = newGeneration();
+
+    // Changes whenever the roosters may look different. Adding, removing and the Rooster
+    // views' setters bump it; the index setters below do not, because bulk loops call them
+    // from several threads, so whoever uses them calls touch() once afterwards.
+    private int version;
+
+    public RoosterStore() {
+        this(16);
+    }
+
+    public RoosterStore(int initialCapacity) {
+        ensureCapacity(Math.max(1, initialCapacity));
+    }
+
+    private static synchronized int newGeneration() {
+        return nextGeneration++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int version() {
+        return version;
+    }
+
+    /** Records that roosters were changed through the index setters. */
+    public void touch() {
+        version++;
+    }
+
+    /** Appends a rooster with default attributes (comb shown) and returns its index. */
+    public int add() {
+        if (count == capacity()) grow();
+        int i = count++;
+        version++;
+        Chunk c = writable(i);
+        int k = i & MASK;
+        c.x[k] = c.y[k] = 0;
+        c.size[k] = 0;
+        c.body[k] = c.wing[k] = c.tail[k] = 0;
+        c.flags[k] = (short) (COMB | (1 << WALK_SHIFT));
+        return i;
+    }
+
+    public void removeLast() {
+        if (count > 0) count--;
+        version++;
+    }
+
+    public void clear() {
+        count = 0;
+        version++;
+    }
+
+    public Rooster view(int i) {
+        return new Rooster(this, i);
+    }
+
+    /** Approximate heap footprint of the attribute arrays. */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Chunk c : chunks) bytes += (long) c.capacity() * BYTES_PER_ROOSTER;
+        return bytes;
+    }
+
+    private int capacity() {
+        return chunks.length == 0 ? 0 : (chunks.length - 1) * CHUNK + chunks[chunks.length - 1].capacity();
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity() < capacity) resize(Math.max(capacity, capacity() * 2));
+    }
+
+    private void grow() {
+        resize(Math.max(1, capacity() * 2));
+    }
+
+    // Full chunks up to n, the last one only as long as needed
+    private void resize(int n) {
+        int oldChunks = chunks.length;
+        int newChunks = (n + CHUNK - 1) >>> SHIFT;
+        chunks = Arrays.copyOf(chunks, newChunks);
+        for (int c = Math.max(0, oldChunks - 1); c < newChunks; c++) {
+            int length = Math.min(CHUNK, n - c * CHUNK);
+            if (chunks[c] == null) chunks[c] = new Chunk(length, generation);
+            else if (chunks[c].capacity() < length) chunks[c] = chunks[c].copy(length, generation);
+        }
+    }
+
+    // Chunk holding i, copied first if a snapshot may still share it
+    private Chunk writable(int i) {
+        int c = i >>> SHIFT;
+        Chunk chunk = chunks[c];
+        if (chunk.owner != generation) chunks[c] = chunk = chunk.copy(chunk.capacity(), generation);
+        return chunk;
+    }
+
+    private Chunk chunk(int i) {
+        return chunks[i >>> SHIFT];
+    }
+
+    // --- Snapshots ---
+
+    /** Freezes the current state in O(chunks); later writes copy the chunks they touch. */
+    public Snapshot snapshot() {
+        generation = newGeneration();
+        return new Snapshot(count, chunks.clone());
+    }
+
+    /** Returns to a snapshot (of this or another store) without copying any chunk yet. */
+    public void restore(Snapshot snapshot) {
+        chunks = snapshot.chunks.clone();
+        count = snapshot.count;
+        generation = newGeneration();
+        version++;
+    }
+
+    /** Bytes held by the chunks of these snapshots that this store no longer shares. */
+    public long retainedBytes(Iterable<Snapshot> snapshots) {
+        Set<Chunk> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        live.addAll(Arrays.asList(chunks));
+        Set<Chunk> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = 0;
+        for (Snapshot s : snapshots) {
+            for (Chunk c : s.chunks) {
+                if (!live.contains(c) && counted.add(c)) bytes += (long) c.capacity() * BYTES_PER_ROOSTER;
+            }
+        }
+        return bytes;
+    }
+
+    // --- Attribute access by index ---
+    public int x(int i) { return chunk(i).x[i & MASK]; }
+    public int y(int i) { return chunk(i).y[i & MASK]; }
+    public void setPosition(int i, int px, int py) {
+        Chunk c = writable(i);
+        c.x[i & MASK] = px;
+        c.y[i & MASK] = py;
+    }
+
+    public float size(int i) { return chunk(i).size[i & MASK]; }
+    public void setSize(int i, double s) { writable(i).size[i & MASK] = (float) s; }
+
+    public int bodyRGB(int i) { return chunk(i).body[i & MASK]; }
+    public int wingRGB(int i) { return chunk(i).wing[i & MASK]; }
+    public int tailRGB(int i) { return chunk(i).tail[i & MASK]; }
+    public void setBodyRGB(int i, int argb) { writable(i).body[i & MASK] = argb; setFlag(i, BODY_SET, true); }
+    public void setWingRGB(int i, int argb) { writable(i).wing[i & MASK] = argb; setFlag(i, WING_SET, true); }
+    public void setTailRGB(int i, int argb) { writable(i).tail[i & MASK] = argb; setFlag(i, TAIL_SET, true); }
+
+    // Colors as objects; null means never set (transparent black is a color like any other)
+    public Color bodyColor(int i) { return color(i, BODY_SET, bodyRGB(i)); }
+    public Color wingColor(int i) { return color(i, WING_SET, wingRGB(i)); }
+    public Color tailColor(int i) { return color(i, TAIL_SET, tailRGB(i)); }
+    public void setBodyColor(int i, Color c) { setBodyRGB(i, pack(c)); setFlag(i, BODY_SET, c != null); }
+    public void setWingColor(int i, Color c) { setWingRGB(i, pack(c)); setFlag(i, WING_SET, c != null); }
+    public void setTailColor(int i, Color c) { setTailRGB(i, pack(c)); setFlag(i, TAIL_SET, c != null); }
+
+    private Color color(int i, int setBit, int argb) {
+        return (chunk(i).flags[i & MASK] & setBit) != 0 ? unpack(argb) : null;
+    }
+
+    public boolean showComb(int i) { return (chunk(i).flags[i & MASK] & COMB) != 0; }
+    public boolean hasHat(int i) { return (chunk(i).flags[i & MASK] & HAT) != 0; }
+    public void setShowComb(int i, boolean on) { setFlag(i, COMB, on); }
+    public void setHasHat(int i, boolean on) { setFlag(i, HAT, on); }
+
+    public int wingFrame(int i) { return (chunk(i).flags[i & MASK] >> WING_SHIFT) & 3; }
+    public int walkFrame(int i) { return ((chunk(i).flags[i & MASK] >> WALK_SHIFT) & 3) - 1; }
+    public void setPose(int i, int wingFrame, int walkFrame) {
+        short[] flags = writable(i).flags;
+        int keep = flags[i & MASK] & ~POSE;
+        flags[i & MASK] = (short) (keep | (wingFrame << WING_SHIFT) | ((walkFrame + 1) << WALK_SHIFT));
+    }
+
+    private void setFlag(int i, int bit, boolean on) {
+        short[] flags = writable(i).flags;
+        int k = i & MASK;
+        flags[k] = (short) (on ? flags[k] | bit : flags[k] & ~bit);
+    }
+
+    // --- Randomization ---
+    // Writes only index i (and copies only its chunk), so CHUNK-aligned ranges can be
+    // randomized from different threads
+
+    /** Random comb, position inside the panel, size in [0.8, 1.6), colors and hat. */
+    public void randomize(int i, SplittableRandom rand, int panelWidth, int panelHeight) {
+        randomizeLook(i, rand);
+        setPosition(i, rand.nextInt(panelWidth - Rooster.FOOTPRINT), rand.nextInt(panelHeight - Rooster.FOOTPRINT));
+    }
+
+    /** Random comb, size in [0.8, 1.6), colors and hat; the position is left alone. */
+    public void randomizeLook(int i, SplittableRandom rand) {
+        setShowComb(i, rand.nextBoolean());
+        Chunk c = writable(i);
+        int k = i & MASK;
+        c.size[k] = (float) (0.8 + 0.8 * rand.nextDouble());
+        c.body[k] = RANDOM_PALETTE[rand.nextInt(RANDOM_PALETTE.length)];
+        c.wing[k] = RANDOM_PALETTE[rand.nextInt(RANDOM_PALETTE.length)];
+        c.tail[k] = RANDOM_PALETTE[rand.nextInt(RANDOM_PALETTE.length)];
+        c.flags[k] |= BODY_SET | WING_SET | TAIL_SET;
+        setHasHat(i, rand.nextBoolean());
+    }
+
+    public void randomizeColors(int i, SplittableRandom rand) {
+        Chunk c = writable(i);
+        int k = i & MASK;
+        c.body[k] = COLOR_PALETTE[rand.nextInt(COLOR_PALETTE.length)];
+        c.wing[k] = COLOR_PALETTE[rand.nextInt(COLOR_PALETTE.length)];
+        c.tail[k] = COLOR_PALETTE[rand.nextInt(COLOR_PALETTE.length)];
+        c.flags[k] |= BODY_SET | WING_SET | TAIL_SET;
+    }
+
+    // --- Fixed-width records ---
+
+    /** Bytes per record: x, y, size, body, wing, tail (4 each), flags (2), 2 bytes padding. */
+    public static final int RECORD_BYTES = 28;
+
+    /** Writes records from..to-1 at the buffer's position; it must have room for all of them. */
+    public void writeRecords(int from, int to, ByteBuffer out) {
+        for (int i = from; i < to; i++) {
+            Chunk c = chunk(i);
+            int k = i & MASK;
+            out.putInt(c.x[k]).putInt(c.y[k]).putFloat(c.size[k])
+               .putInt(c.body[k]).putInt(c.wing[k]).putInt(c.tail[k])
+               .putShort(c.flags[k]).putShort((short) 0);
+        }
+    }
+
+    /** Appends {@code n} records read with absolute gets from {@code offset} in the buffer. */
+    public void readRecords(ByteBuffer in, int offset, int n) {
+        ensureCapacity(count + n);
+        int p = offset;
+        for (int k = 0, i = count; k < n; k++, i++, p += RECORD_BYTES) {
+            Chunk c = writable(i);
+            int j = i & MASK;
+            c.x[j] = in.getInt(p);
+            c.y[j] = in.getInt(p + 4);
+            c.size[j] = in.getFloat(p + 8);
+            c.body[j] = in.getInt(p + 12);
+            c.wing[j] = in.getInt(p + 16);
+            c.tail[j] = in.getInt(p + 20);
+            c.flags[j] = in.getShort(p + 24);
+        }
+        count += n;
+        version++;
+    }
+
+    // --- Color packing ---
+    private static int pack(Color c) {
+        return c == null ? 0 : c.getRGB();
+    }
+
+    private static int[] rgb(Color... colors) {
+        int[] out = new int[colors.length];
+        for (int i = 0; i < colors.length; i++) out[i] = colors[i].getRGB();
+        return out;
+    }
+
+    private static Color unpack(int argb) {
+        int slot = (argb ^ (argb >>> 8) ^ (argb >>> 16)) & (COLORS.length - 1);
+        Color c = COLORS[slot];
+        if (c == null || c.getRGB() != argb) COLORS[slot] = c = new Color(argb, true);
+        return c;
+    }
+}